@@ -0,0 +1,12 @@
+package com.abba.tanahora.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+@Data
+public class AiIntentDto {
+
+    @JsonProperty(required = true)
+    MessageReceivedType type;
+
+}
@@ -1,5 +1,6 @@
 package com.abba.tanahora.application.messaging;
 
+import com.abba.tanahora.application.dto.AiMessageProcessorDto;
 import com.abba.tanahora.domain.model.MessageReceived;
 import lombok.Data;
 
@@ -17,6 +18,8 @@ public class AIMessage {
     private String mediaMimeType;
     private String mediaFilename;
     private String mediaSha256;
+    private AiMessageProcessorDto classification;
+    private boolean classified;
 
     public static AIMessage from(MessageReceived messageReceived) {
         AIMessage message = new AIMessage();
@@ -0,0 +1,164 @@
+package com.abba.tanahora.application.messaging.classifier;
+
+import com.abba.tanahora.application.dto.AiMessageProcessorDto;
+import com.abba.tanahora.application.dto.MessageReceivedType;
+import com.abba.tanahora.domain.model.MessageClassificationEntry;
+import com.abba.tanahora.domain.repository.MessageClassificationRepository;
+import com.abba.tanahora.infrastructure.config.ClassificationCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.abba.tanahora.domain.utils.Constants.BRAZIL_ZONEID;
+
+// Two tiers: a bounded in-process Caffeine cache (W-TinyLFU eviction, TTL) in front of a Mongo collection shared
+// by every instance and kept across restarts. Classifications that resolve relative dates against "today"
+// are keyed by body and day, so "durante 7 dias" is never answered with yesterday's RRULE.
+@Component
+@Slf4j
+public class ClassificationCache {
+
+    private static final Set<MessageReceivedType> DATE_DEPENDENT = EnumSet.of(MessageReceivedType.REMINDER_CREATION);
+
+    private final MessageClassificationRepository messageClassificationRepository;
+    private final ClassificationCacheProperties properties;
+    private final Cache<String, AiMessageProcessorDto> local;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+
+    public ClassificationCache(MessageClassificationRepository messageClassificationRepository,
+                               ClassificationCacheProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.messageClassificationRepository = messageClassificationRepository;
+        this.properties = properties;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(Duration.ofMillis(properties.getLocalTtlMs()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "message_classification");
+        this.sharedHits = Counter.builder("message.classification.shared")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.sharedMisses = Counter.builder("message.classification.shared")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public Optional<AiMessageProcessorDto> get(String bodyKey) {
+        String datedKey = datedKey(bodyKey, today());
+        AiMessageProcessorDto cached = local.getIfPresent(datedKey);
+        if (cached == null) {
+            cached = local.getIfPresent(bodyKey);
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        try {
+            OffsetDateTime now = OffsetDateTime.now();
+            // the TTL monitor only runs once a minute, so entries past expiresAt may still be returned
+            Map<String, MessageClassificationEntry> entries = messageClassificationRepository.findAllById(List.of(datedKey, bodyKey))
+                    .stream()
+                    .filter(entry -> entry.getExpiresAt() == null || entry.getExpiresAt().isAfter(now))
+                    .collect(Collectors.toMap(MessageClassificationEntry::getId, Function.identity()));
+            MessageClassificationEntry entry = entries.getOrDefault(datedKey, entries.get(bodyKey));
+            if (entry == null) {
+                sharedMisses.increment();
+                return Optional.empty();
+            }
+            sharedHits.increment();
+            AiMessageProcessorDto dto = toDto(entry);
+            local.put(entry.getId(), dto);
+            return Optional.of(dto);
+        } catch (DataAccessException e) {
+            log.warn("Shared classification cache unavailable, classifying without it: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void put(String bodyKey, AiMessageProcessorDto dto) {
+        LocalDate today = today();
+        boolean dateDependent = DATE_DEPENDENT.contains(dto.getType());
+        String key = dateDependent ? datedKey(bodyKey, today) : bodyKey;
+        local.put(key, dto);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime expiresAt = now.plus(Duration.ofMillis(properties.getSharedTtlMs()));
+        if (dateDependent) {
+            OffsetDateTime endOfDay = today.plusDays(1).atStartOfDay(BRAZIL_ZONEID).toOffsetDateTime();
+            expiresAt = endOfDay.isBefore(expiresAt) ? endOfDay : expiresAt;
+        }
+        try {
+            messageClassificationRepository.save(toEntry(key, dto, now, expiresAt));
+        } catch (DataAccessException e) {
+            log.warn("Failed to store classification in the shared cache: {}", e.getMessage());
+        }
+    }
+
+    // Hashed once per classification and passed to get/put.
+    public String bodyKey(String body) {
+        String normalizedBody = Objects.toString(body, "").trim().toLowerCase();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(normalizedBody.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm unavailable", e);
+        }
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(BRAZIL_ZONEID);
+    }
+
+    private String datedKey(String bodyKey, LocalDate day) {
+        return bodyKey + ":" + day;
+    }
+
+    private MessageClassificationEntry toEntry(String key, AiMessageProcessorDto dto, OffsetDateTime now, OffsetDateTime expiresAt) {
+        MessageClassificationEntry entry = new MessageClassificationEntry();
+        entry.setId(key);
+        entry.setType(dto.getType() == null ? null : dto.getType().name());
+        entry.setRrule(dto.getRrule());
+        entry.setMedication(dto.getMedication());
+        entry.setDosage(dto.getDosage());
+        entry.setStartDate(dto.getStartDate());
+        entry.setPatientName(dto.getPatientName());
+        entry.setCreatedAt(now);
+        entry.setExpiresAt(expiresAt);
+        return entry;
+    }
+
+    private AiMessageProcessorDto toDto(MessageClassificationEntry entry) {
+        AiMessageProcessorDto dto = new AiMessageProcessorDto();
+        dto.setType(entry.getType() == null ? null : MessageReceivedType.valueOf(entry.getType()));
+        dto.setRrule(entry.getRrule());
+        dto.setMedication(entry.getMedication());
+        dto.setDosage(entry.getDosage());
+        dto.setStartDate(entry.getStartDate());
+        dto.setPatientName(entry.getPatientName());
+        return dto;
+    }
+}
@@ -6,4 +6,13 @@ import com.abba.tanahora.application.messaging.AIMessage;
 public interface MessageClassifier {
 
     AiMessageProcessorDto classify(AIMessage message);
+
+    // Classifies a message at most once; every handler that needs the classification reads it from the message.
+    default AiMessageProcessorDto classificationOf(AIMessage message) {
+        if (!message.isClassified()) {
+            message.setClassification(classify(message));
+            message.setClassified(true);
+        }
+        return message.getClassification();
+    }
 }
@@ -1,57 +1,89 @@
 package com.abba.tanahora.application.messaging.classifier;
 
+import com.abba.tanahora.application.dto.AiIntentDto;
 import com.abba.tanahora.application.dto.AiMessageProcessorDto;
+import com.abba.tanahora.application.dto.MessageReceivedType;
 import com.abba.tanahora.application.messaging.AIMessage;
 import com.abba.tanahora.application.service.OpenAiApiService;
+import com.abba.tanahora.application.service.OpenAiStage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
-import java.util.HexFormat;
-import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
 
 import static com.abba.tanahora.domain.utils.Constants.NOT_INFORMED;
 
 @Component
 @RequiredArgsConstructor
-public class OpenAiMessageClassifier implements MessageClassifier {
+public class OpenAiMessageClassifier {
+
+    // Only these intents read medication, dosage, rrule or patient from the classification.
+    private static final Set<MessageReceivedType> EXTRACTION_TYPES =
+            EnumSet.of(MessageReceivedType.REMINDER_CREATION, MessageReceivedType.REMINDER_CANCEL);
 
     private final OpenAiApiService openAiApiService;
-    private final Map<String, AiMessageProcessorDto> classificationCache = new ConcurrentHashMap<>();
+    private final ClassificationCache classificationCache;
 
-    @Override
     public AiMessageProcessorDto classify(AIMessage message) {
-        String messageHash = this.messageHash(message.getBody());
-        AiMessageProcessorDto cachedByHash = classificationCache.get(messageHash);
-        if (cachedByHash != null) {
-            return cachedByHash;
+        String bodyKey = classificationCache.bodyKey(message.getBody());
+        Optional<AiMessageProcessorDto> cached = classificationCache.get(bodyKey);
+        if (cached.isPresent()) {
+            return cached.get();
         }
 
         AiMessageProcessorDto dto = this.iaClassify(message);
         if (dto != null) {
-            AiMessageProcessorDto existing = classificationCache.putIfAbsent(messageHash, dto);
-            return existing != null ? existing : dto;
+            classificationCache.put(bodyKey, dto);
         }
-        return null;
+        return dto;
     }
 
-    private String messageHash(String body) {
-        String normalizedBody = Objects.toString(body, "").trim().toLowerCase();
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(normalizedBody.getBytes(StandardCharsets.UTF_8));
-            return HexFormat.of().formatHex(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 algorithm unavailable", e);
+    private AiMessageProcessorDto iaClassify(AIMessage message) {
+        AiIntentDto intent = classifyIntent(message);
+        if (intent == null || intent.getType() == null) {
+            return null;
         }
+        if (!EXTRACTION_TYPES.contains(intent.getType())) {
+            AiMessageProcessorDto dto = new AiMessageProcessorDto();
+            dto.setType(intent.getType());
+            dto.setDosage(NOT_INFORMED);
+            dto.setPatientName(NOT_INFORMED);
+            return dto;
+        }
+        AiMessageProcessorDto dto = extract(message, intent.getType());
+        if (dto != null) {
+            dto.setType(intent.getType());
+        }
+        return dto;
     }
 
-    private AiMessageProcessorDto iaClassify(AIMessage message) {
+    private AiIntentDto classifyIntent(AIMessage message) {
+        String prompt = """
+                Classifique a intencao da mensagem de um usuario de um assistente de lembretes de medicamentos.
+                
+                Mensagem: %s
+                
+                Tipos:
+                 - WELCOME: saudacao
+                 - REMINDER_CREATION: pedido para cadastrar um lembrete de medicamento
+                 - REMINDER_RESPONSE_TAKEN: confirma que tomou (tomei, ok, tudo certo)
+                 - REMINDER_RESPONSE_SKIPPED: nao tomou (nao tomei, nao vou tomar, esqueci)
+                 - REMINDER_RESPONSE_SNOOZED: adiamento (adiar, depois, mais tarde)
+                 - REMINDER_CANCEL: cancelar um lembrete de medicamento
+                 - CHECK_NEXT_DISPATCH: quando e o proximo lembrete
+                 - CHECK_HISTORY: historico de lembretes
+                 - SHOW_ACTIVE_REMINDERS: listar lembretes ativos
+                 - PLAN_UPGRADE, PLAN_DOWNGRADE: mudar de plano
+                 - PLAN_INFO: status/informacoes do plano
+                 - SUPPORT: qualquer outra coisa
+                """;
+        return openAiApiService.sendPrompt(String.format(prompt, message.getBody()), AiIntentDto.class, OpenAiStage.INTENT);
+    }
+
+    private AiMessageProcessorDto extract(AIMessage message, MessageReceivedType type) {
         String prompt = """
                 Voce e um parser de agendamentos de medicamentos que entende mensagens contendo medicamento, dose,
                 frequencia e data de inicio e fim.
@@ -61,25 +93,12 @@ public class OpenAiMessageClassifier implements MessageClassifier {
                 %s
                 
                 Retorne seguindo o padrao indicado.
+                O type desta mensagem ja foi identificado como %s; repita esse valor no campo 'type'.
                 Para o campo 'dosage', informe a quantidade do medicamento a ser tomada,
                 se não houver essa informacao na mensagem, retorne 'não informado'.
                 Para o campo 'patientName', informe o nome do paciente quando houver
                 (ex: "para Maria"), caso contrario retorne %s.
                 
-                O type do retorno deve ser inferido de acordo com a mensagem recebida.
-                Por exemplo:
-                 - se a mensagem for uma saudacao, o type deve ser WELCOME
-                 - se a mensagem for um lembrete de medicamento, o type deve ser REMINDER_CREATION
-                 - se a mensagem for uma resposta positiva de um lembrete de medicamento (tomei, ok, tudo certo, etc), o type deve ser REMINDER_RESPONSE_TAKEN
-                 - se a mensagem for uma resposta negativa de um lembrete de medicamento (não tomei, não vou tomar, esqueci, etc), o type deve ser REMINDER_RESPONSE_SKIPPED
-                 - se a mensagem for um adiamento de lembrete (adiar, depois, mais tarde, etc), o type deve ser REMINDER_RESPONSE_SNOOZED
-                 - se a mensagem for um cancelamento de um lembrete de medicamento, o type deve ser REMINDER_CANCEL
-                 - se a mensagem for uma pergunta sobre quando e o proximo lembrete, o type deve ser CHECK_NEXT_DISPATCH
-                 - se a mensagem for uma mensagem de suporte, o type deve ser SUPPORT
-                 - se a mensagem for solicitando upgrade ou downgrade do plano, o type deve ser PLAN_UPGRADE ou PLAN_DOWNGRADE
-                 - se a mensagem for para consultar o status/informacoes do plano, o type deve ser PLAN_INFO
-                 - se a mensagem for um pedido para checar o histórico de lembretes, o type deve ser CHECK_HISTORY
-                
                 A RRULE deve seguir o padrao iCalendar. Exemplo: FREQ=DAILY;INTERVAL=1;UNTIL=20260213T000000Z
                 Regras obrigatorias para RRULE valida:
                 - Retorne somente o conteudo da regra, sem prefixo "RRULE:"
@@ -101,6 +120,7 @@ public class OpenAiMessageClassifier implements MessageClassifier {
                 Hoje e %s.
                 
                 """;
-        return openAiApiService.sendPrompt(String.format(prompt, message.getBody(), NOT_INFORMED, OffsetDateTime.now()), AiMessageProcessorDto.class);
+        return openAiApiService.sendPrompt(String.format(prompt, message.getBody(), type, NOT_INFORMED, OffsetDateTime.now()),
+                AiMessageProcessorDto.class, OpenAiStage.EXTRACTION);
     }
 }
@@ -0,0 +1,104 @@
+package com.abba.tanahora.application.messaging.classifier;
+
+import com.abba.tanahora.application.dto.AiMessageProcessorDto;
+import com.abba.tanahora.application.dto.MessageReceivedType;
+import com.abba.tanahora.application.messaging.AIMessage;
+import com.abba.tanahora.infrastructure.config.ClassificationRulesProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.abba.tanahora.domain.utils.Constants.NOT_INFORMED;
+
+// Answers clicks on our own reply buttons, short unambiguous phrases ("tomei", "esqueci", "oi") and common
+// registration sentences without leaving the JVM; everything else falls through to the LLM classifier.
+@Component
+@Slf4j
+public class RuleBasedMessageClassifier implements MessageClassifier {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final OpenAiMessageClassifier openAiMessageClassifier;
+    private final ScheduleSentenceParser scheduleSentenceParser;
+    private final ClassificationRulesProperties properties;
+    private final Map<String, MessageReceivedType> phrases = new HashMap<>();
+    private final Counter ruleHits;
+    private final Counter ruleMisses;
+
+    public RuleBasedMessageClassifier(OpenAiMessageClassifier openAiMessageClassifier,
+                                      ScheduleSentenceParser scheduleSentenceParser,
+                                      ClassificationRulesProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.openAiMessageClassifier = openAiMessageClassifier;
+        this.scheduleSentenceParser = scheduleSentenceParser;
+        this.properties = properties;
+        properties.getPhrases().forEach((type, values) -> {
+            for (String phrase : values) {
+                MessageReceivedType previous = phrases.putIfAbsent(normalize(phrase), type);
+                if (previous != null && previous != type) {
+                    log.warn("Classification phrase '{}' configured for {} and {}; keeping {}", phrase, previous, type, previous);
+                }
+            }
+        });
+        this.ruleHits = Counter.builder("message.classification.rules")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.ruleMisses = Counter.builder("message.classification.rules")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AiMessageProcessorDto classify(AIMessage message) {
+        AiMessageProcessorDto dto = properties.isEnabled() ? match(message) : null;
+        if (dto != null) {
+            ruleHits.increment();
+            log.debug("Classified message id={} as {} by rule", message.getId(), dto.getType());
+            return dto;
+        }
+        ruleMisses.increment();
+        return openAiMessageClassifier.classify(message);
+    }
+
+    private AiMessageProcessorDto match(AIMessage message) {
+        String buttonId = message.getInteractiveButtonId();
+        if (buttonId != null) {
+            MessageReceivedType type = properties.getButtons().get(buttonId.trim());
+            if (type != null) {
+                return classification(type);
+            }
+        }
+        String body = message.getBody();
+        if (body == null || body.isBlank()) {
+            return null;
+        }
+        MessageReceivedType type = phrases.get(normalize(body));
+        if (type != null) {
+            return classification(type);
+        }
+        // a registration sentence the local parser fully understands skips both LLM stages
+        return scheduleSentenceParser.parse(body).orElse(null);
+    }
+
+    private AiMessageProcessorDto classification(MessageReceivedType type) {
+        AiMessageProcessorDto dto = new AiMessageProcessorDto();
+        dto.setType(type);
+        dto.setDosage(NOT_INFORMED);
+        dto.setPatientName(NOT_INFORMED);
+        return dto;
+    }
+
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String withoutAccents = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_WORD.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,250 @@
+package com.abba.tanahora.application.messaging.classifier;
+
+import com.abba.tanahora.application.dto.AiMessageProcessorDto;
+import com.abba.tanahora.application.dto.MessageReceivedType;
+import com.abba.tanahora.domain.utils.RecurrenceRules;
+import lombok.extern.slf4j.Slf4j;
+import org.dmfs.rfc5545.recur.InvalidRecurrenceRuleException;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.abba.tanahora.domain.utils.Constants.BRAZIL_ZONEID;
+import static com.abba.tanahora.domain.utils.Constants.NOT_INFORMED;
+
+// Turns the common registration sentences ("dipirona 500mg a cada 8 horas durante 7 dias", "losartana todo dia
+// as 20:00", "omeprazol apos as refeicoes") into a reminder classification with a validated RRULE. The whole
+// sentence has to match the grammar below; anything else (patient names, negations, free text) is left to the LLM.
+@Component
+@Slf4j
+public class ScheduleSentenceParser {
+
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    // 7:30, 13:00 and 20:00, the same slots the LLM prompt uses for meals
+    private static final List<LocalTime> MEAL_TIMES = List.of(LocalTime.of(7, 30), LocalTime.of(13, 0), LocalTime.of(20, 0));
+
+    private static final Set<String> NOT_A_MEDICATION = Set.of(
+            "o", "a", "os", "as", "de", "do", "da", "meu", "minha", "meus", "minhas", "remedio", "remedios",
+            "medicamento", "medicamentos", "cancelar", "cancela", "cancele", "parar", "pare", "remover", "excluir",
+            "apagar", "suspender", "tirar", "deletar", "nao", "lembrete", "lembretes", "para", "pra", "pro", "e", "com");
+
+    private static final Map<String, Integer> MONTHS = Map.ofEntries(
+            Map.entry("janeiro", 1), Map.entry("fevereiro", 2), Map.entry("marco", 3), Map.entry("abril", 4),
+            Map.entry("maio", 5), Map.entry("junho", 6), Map.entry("julho", 7), Map.entry("agosto", 8),
+            Map.entry("setembro", 9), Map.entry("outubro", 10), Map.entry("novembro", 11), Map.entry("dezembro", 12));
+
+    private static final String DOSE = "(?:\\d+(?:[.,]\\d+)? ?(?:mg|mcg|g|ml|ui|gotas?|comprimidos?|capsulas?|cps?)"
+            + "|(?:um|uma|meio|meia|dois|duas|tres) (?:comprimidos?|capsulas?|gotas?|colher(?:es)?(?: de (?:sopa|cha))?))";
+    private static final String CLOCK = "\\d{1,2}(?:(?::|h)\\d{2})?(?: ?(?:h|hs|horas?))?";
+    private static final String TIMES = "(?:as |a )?" + CLOCK + "(?:(?:, | e )(?:as |a )?" + CLOCK + ")*";
+    private static final String EVERY_DAY = "(?:todo dia|todos os dias|diariamente)";
+
+    private static final Pattern SENTENCE = Pattern.compile("^"
+            + "(?:(?:me )?(?:lembre|lembrar|lembra)(?: de)? |lembrete (?:de|para) |(?:preciso|quero|devo|vou) )?"
+            + "(?:tomar |tomo |usar |aplicar )?"
+            + "(?:(?<dosePrefix>" + DOSE + ") (?:de )?)?"
+            + "(?<medication>\\p{L}[\\p{L}\\d-]*(?: \\p{L}[\\p{L}\\d-]*){0,2}?)"
+            + "(?:,? (?:de )?(?<dose>" + DOSE + "))?"
+            + ",? (?:"
+            + "a cada (?<every>\\d{1,2}) ?(?:h|hs|horas?)"
+            + "|de (?<everyFrom>\\d{1,2}) em (?<everyTo>\\d{1,2}) ?(?:h|hs|horas?)"
+            + "|(?<perDay>\\d{1,2}) ?(?:x|vezes) (?:ao|por) dia"
+            + "|" + EVERY_DAY + " (?<timesAfter>" + TIMES + ")"
+            + "|(?<timesBefore>" + TIMES + ") " + EVERY_DAY
+            + "|(?<meals>(?:apos|depois) (?:as |das )?refeicoes)"
+            + ")"
+            + "(?:,? (?:(?:durante|por) (?<amount>\\d{1,3}) (?<unit>dias?|semanas?|mes|meses)"
+            + "|ate (?:o )?dia (?<untilDay>\\d{1,2})(?:/(?<untilMonth>\\d{1,2})| de (?<untilMonthName>\\p{L}+))?))?"
+            + "$");
+
+    private static final Pattern CLOCK_PARTS = Pattern.compile("(\\d{1,2})(?:(?::|h)(\\d{2}))?");
+
+    public Optional<AiMessageProcessorDto> parse(String body) {
+        return parse(body, ZonedDateTime.now(BRAZIL_ZONEID));
+    }
+
+    public Optional<AiMessageProcessorDto> parse(String body, ZonedDateTime now) {
+        if (body == null || body.isBlank()) {
+            return Optional.empty();
+        }
+        String text = Normalizer.normalize(body, Normalizer.Form.NFC)
+                .replaceAll("\\s+", " ")
+                .replaceAll("[\\s.!;]+$", "")
+                .trim();
+        Matcher matcher = SENTENCE.matcher(fold(text));
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+
+        String medication = text.substring(matcher.start("medication"), matcher.end("medication"));
+        for (String token : fold(medication).split(" ")) {
+            if (NOT_A_MEDICATION.contains(token)) {
+                return Optional.empty();
+            }
+        }
+
+        String rrule = schedule(matcher);
+        if (rrule == null) {
+            return Optional.empty();
+        }
+        String until = until(matcher, now);
+        if (until != null) {
+            rrule = rrule + ";UNTIL=" + until;
+        } else if (hasDuration(matcher)) {
+            return Optional.empty();
+        }
+        try {
+            RecurrenceRules.parse(rrule);
+        } catch (InvalidRecurrenceRuleException e) {
+            log.debug("Discarding locally parsed rrule={} for body={}", rrule, body, e);
+            return Optional.empty();
+        }
+
+        AiMessageProcessorDto dto = new AiMessageProcessorDto();
+        dto.setType(MessageReceivedType.REMINDER_CREATION);
+        dto.setMedication(medication);
+        dto.setDosage(dosage(text, matcher));
+        dto.setRrule(rrule);
+        dto.setPatientName(NOT_INFORMED);
+        return Optional.of(dto);
+    }
+
+    private String schedule(Matcher matcher) {
+        if (matcher.group("every") != null) {
+            return everyHours(Integer.parseInt(matcher.group("every")));
+        }
+        if (matcher.group("everyFrom") != null) {
+            int from = Integer.parseInt(matcher.group("everyFrom"));
+            return from == Integer.parseInt(matcher.group("everyTo")) ? everyHours(from) : null;
+        }
+        if (matcher.group("perDay") != null) {
+            int perDay = Integer.parseInt(matcher.group("perDay"));
+            return perDay > 0 && perDay <= 24 && 24 % perDay == 0 ? everyHours(24 / perDay) : null;
+        }
+        if (matcher.group("meals") != null) {
+            return dailyAt(MEAL_TIMES);
+        }
+        String times = matcher.group("timesAfter") != null ? matcher.group("timesAfter") : matcher.group("timesBefore");
+        List<LocalTime> clock = clockTimes(times);
+        return clock == null ? null : dailyAt(clock);
+    }
+
+    private String everyHours(int hours) {
+        if (hours <= 0 || hours > 24) {
+            return null;
+        }
+        return hours == 24 ? "FREQ=DAILY" : "FREQ=HOURLY;INTERVAL=" + hours;
+    }
+
+    private List<LocalTime> clockTimes(String times) {
+        TreeSet<LocalTime> result = new TreeSet<>();
+        Matcher parts = CLOCK_PARTS.matcher(times);
+        while (parts.find()) {
+            int hour = Integer.parseInt(parts.group(1));
+            int minute = parts.group(2) == null ? 0 : Integer.parseInt(parts.group(2));
+            if (hour > 23 || minute > 59) {
+                return null;
+            }
+            result.add(LocalTime.of(hour, minute));
+        }
+        return result.isEmpty() ? null : List.copyOf(result);
+    }
+
+    // BYHOUR and BYMINUTE expand as a cross product, so times with different minutes are picked out of it with BYSETPOS.
+    private String dailyAt(List<LocalTime> times) {
+        List<Integer> hours = List.copyOf(times.stream().map(LocalTime::getHour).collect(Collectors.toCollection(TreeSet::new)));
+        List<Integer> minutes = List.copyOf(times.stream().map(LocalTime::getMinute).collect(Collectors.toCollection(TreeSet::new)));
+        String rrule = "FREQ=DAILY;BYHOUR=" + join(hours) + ";BYMINUTE=" + join(minutes) + ";BYSECOND=0";
+        if (minutes.size() == 1) {
+            return rrule;
+        }
+        List<Integer> positions = new ArrayList<>();
+        for (LocalTime time : times) {
+            positions.add(hours.indexOf(time.getHour()) * minutes.size() + minutes.indexOf(time.getMinute()) + 1);
+        }
+        return rrule + ";BYSETPOS=" + join(positions);
+    }
+
+    private boolean hasDuration(Matcher matcher) {
+        return matcher.group("amount") != null || matcher.group("untilDay") != null;
+    }
+
+    private String until(Matcher matcher, ZonedDateTime now) {
+        ZonedDateTime until;
+        if (matcher.group("amount") != null) {
+            int amount = Integer.parseInt(matcher.group("amount"));
+            if (amount == 0) {
+                return null;
+            }
+            String unit = matcher.group("unit");
+            until = unit.startsWith("dia") ? now.plusDays(amount)
+                    : unit.startsWith("semana") ? now.plusWeeks(amount)
+                    : now.plusMonths(amount);
+        } else if (matcher.group("untilDay") != null) {
+            LocalDate date = untilDate(matcher, now.toLocalDate());
+            if (date == null) {
+                return null;
+            }
+            until = date.atTime(LocalTime.of(23, 59, 59)).atZone(now.getZone());
+        } else {
+            return null;
+        }
+        return until.truncatedTo(ChronoUnit.SECONDS).withZoneSameInstant(ZoneOffset.UTC).format(UNTIL_FORMAT);
+    }
+
+    private LocalDate untilDate(Matcher matcher, LocalDate today) {
+        int day = Integer.parseInt(matcher.group("untilDay"));
+        Integer month = matcher.group("untilMonth") != null ? Integer.valueOf(matcher.group("untilMonth"))
+                : matcher.group("untilMonthName") != null ? MONTHS.get(matcher.group("untilMonthName")) : null;
+        if (matcher.group("untilMonthName") != null && month == null) {
+            return null;
+        }
+        try {
+            if (month == null) {
+                LocalDate date = today.withDayOfMonth(day);
+                return date.isBefore(today) ? today.plusMonths(1).withDayOfMonth(day) : date;
+            }
+            LocalDate date = LocalDate.of(today.getYear(), month, day);
+            return date.isBefore(today) ? date.plusYears(1) : date;
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private String dosage(String text, Matcher matcher) {
+        String group = matcher.group("dose") != null ? "dose" : matcher.group("dosePrefix") != null ? "dosePrefix" : null;
+        return group == null ? NOT_INFORMED : text.substring(matcher.start(group), matcher.end(group));
+    }
+
+    private String join(List<Integer> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    // Lower-cases and strips accents one character at a time, so offsets in the folded text match the original.
+    private static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            folded.append(Character.toLowerCase(base.isEmpty() ? c : base.charAt(0)));
+        }
+        return folded.toString();
+    }
+}
@@ -23,29 +23,38 @@ import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.text.Normalizer;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 @Order(500)
 @RequiredArgsConstructor
-public class CancelMedicationHandler implements MessageHandler {
+public class CancelMedicationHandler implements ClassifiedMessageHandler {
 
     static final String PATIENT_BUTTON_PREFIX = "cancel_patient:";
 
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.REMINDER_CANCEL);
+
     private final MessageClassifier messageClassifier;
     private final UserService userService;
     private final ReminderService reminderService;
     private final NotificationService notificationService;
     private final PatientResolverService patientResolverService;
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto dto = messageClassifier.classify(message);
+        AiMessageProcessorDto dto = messageClassifier.classificationOf(message);
         return dto != null && dto.getType() == MessageReceivedType.REMINDER_CANCEL;
     }
 
@@ -56,7 +65,7 @@ public class CancelMedicationHandler implements MessageHandler {
             return;
         }
 
-        AiMessageProcessorDto dto = messageClassifier.classify(message);
+        AiMessageProcessorDto dto = messageClassifier.classificationOf(message);
         if (dto == null || dto.getType() != MessageReceivedType.REMINDER_CANCEL) {
             return;
         }
@@ -18,23 +18,32 @@ import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Component
 @Order(355)
 @RequiredArgsConstructor
-public class CheckHistoryHandler implements MessageHandler {
+public class CheckHistoryHandler implements ClassifiedMessageHandler {
+
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.CHECK_HISTORY);
 
     private final MessageClassifier messageClassifier;
     private final UserService userService;
     private final ReminderEventService reminderEventService;
     private final NotificationService notificationService;
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto classify = messageClassifier.classify(message);
+        AiMessageProcessorDto classify = messageClassifier.classificationOf(message);
         return classify.getType() == MessageReceivedType.CHECK_HISTORY;
     }
 
@@ -5,7 +5,6 @@ import com.abba.tanahora.application.dto.MessageReceivedType;
 import com.abba.tanahora.application.messaging.AIMessage;
 import com.abba.tanahora.application.messaging.classifier.MessageClassifier;
 import com.abba.tanahora.application.notification.BasicWhatsAppMessage;
-import com.abba.tanahora.domain.model.Reminder;
 import com.abba.tanahora.domain.model.User;
 import com.abba.tanahora.domain.service.NotificationService;
 import com.abba.tanahora.domain.service.PatientResolverService;
@@ -16,13 +15,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Component
 @Slf4j
 @Order(300)
 @RequiredArgsConstructor
-public class CheckNextDispatchHandler implements MessageHandler {
+public class CheckNextDispatchHandler implements ClassifiedMessageHandler {
+
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.CHECK_NEXT_DISPATCH);
 
     private final MessageClassifier messageClassifier;
     private final ReminderService reminderService;
@@ -30,9 +32,14 @@ public class CheckNextDispatchHandler implements MessageHandler {
     private final NotificationService notificationService;
 
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto dto = messageClassifier.classify(message);
+        AiMessageProcessorDto dto = messageClassifier.classificationOf(message);
         return dto.getType() == MessageReceivedType.CHECK_NEXT_DISPATCH;
     }
 
@@ -42,9 +49,7 @@ public class CheckNextDispatchHandler implements MessageHandler {
         log.info("Checking next dispatch for user={}", userId);
         User user = userService.findByWhatsappId(userId);
 
-        reminderService.getByUser(user)
-                .stream()
-                .min(Comparator.comparing(Reminder::getNextDispatch))
+        reminderService.getNextByUser(user)
                 .ifPresentOrElse(
                         reminder -> notificationService.sendNotification(user, BasicWhatsAppMessage.builder()
                                 .to(user.getWhatsappId())
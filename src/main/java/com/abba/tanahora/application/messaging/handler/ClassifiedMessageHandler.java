@@ -0,0 +1,23 @@
+package com.abba.tanahora.application.messaging.handler;
+
+import com.abba.tanahora.application.dto.MessageReceivedType;
+import com.abba.tanahora.application.messaging.AIMessage;
+
+import java.util.Set;
+
+// Handlers routed by the message classification. MessageChain indexes them by handledTypes() instead of
+// asking each one in turn; supports() stays for callers that hold a single handler.
+public interface ClassifiedMessageHandler extends MessageHandler {
+
+    Set<MessageReceivedType> handledTypes();
+
+    // A handler may also claim messages by their shape alone (e.g. a reply to a reminder), ahead of the handlers
+    // ordered after it, whatever the classification says.
+    default boolean hasShapeClaim() {
+        return false;
+    }
+
+    default boolean claimsByShape(AIMessage message) {
+        return false;
+    }
+}
@@ -19,12 +19,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 @Order(200)
 @RequiredArgsConstructor
-public class MedicationRegistrationHandler implements MessageHandler {
+public class MedicationRegistrationHandler implements ClassifiedMessageHandler {
+
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.REMINDER_CREATION);
 
     private final MessageClassifier messageClassifier;
     private final UserService userService;
@@ -32,15 +36,20 @@ public class MedicationRegistrationHandler implements MessageHandler {
     private final NotificationService notificationService;
     private final PatientResolverService patientResolverService;
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto dto = messageClassifier.classify(message);
+        AiMessageProcessorDto dto = messageClassifier.classificationOf(message);
         return dto != null && dto.getType() == MessageReceivedType.REMINDER_CREATION;
     }
 
     @Override
     public void handle(AIMessage message) {
-        AiMessageProcessorDto dto = messageClassifier.classify(message);
+        AiMessageProcessorDto dto = messageClassifier.classificationOf(message);
         if (dto == null || dto.getType() != MessageReceivedType.REMINDER_CREATION) {
             return;
         }
@@ -14,19 +14,29 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 @Component
 @Order(510)
 @RequiredArgsConstructor
-public class PlanDowngradeHandler implements MessageHandler {
+public class PlanDowngradeHandler implements ClassifiedMessageHandler {
+
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.PLAN_DOWNGRADE);
 
     private final UserService userService;
     private final MessageClassifier messageClassifier;
     private final NotificationService notificationService;
     private final SubscriptionService subscriptionService;
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto classify = messageClassifier.classify(message);
+        AiMessageProcessorDto classify = messageClassifier.classificationOf(message);
         return classify.getType() == MessageReceivedType.PLAN_DOWNGRADE;
     }
 
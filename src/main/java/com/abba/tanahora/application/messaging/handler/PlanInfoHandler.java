@@ -17,23 +17,32 @@ import org.springframework.stereotype.Component;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 import java.util.Locale;
+import java.util.Set;
 
 @Component
 @Order(505)
 @RequiredArgsConstructor
-public class PlanInfoHandler implements MessageHandler {
+public class PlanInfoHandler implements ClassifiedMessageHandler {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.forLanguageTag("pt-BR"));
 
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.PLAN_INFO);
+
     private final UserService userService;
     private final MessageClassifier messageClassifier;
     private final NotificationService notificationService;
     private final SubscriptionService subscriptionService;
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto classify = messageClassifier.classify(message);
+        AiMessageProcessorDto classify = messageClassifier.classificationOf(message);
         return classify.getType() == MessageReceivedType.PLAN_INFO;
     }
 
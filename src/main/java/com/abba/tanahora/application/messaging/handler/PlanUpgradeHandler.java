@@ -15,19 +15,29 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 @Component
 @Order(500)
 @RequiredArgsConstructor
-public class PlanUpgradeHandler implements MessageHandler {
+public class PlanUpgradeHandler implements ClassifiedMessageHandler {
+
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.PLAN_UPGRADE);
 
     private final UserService userService;
     private final MessageClassifier messageClassifier;
     private final NotificationService notificationService;
     private final SubscriptionService subscriptionService;
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto classify = messageClassifier.classify(message);
+        AiMessageProcessorDto classify = messageClassifier.classificationOf(message);
         return classify.getType() == MessageReceivedType.PLAN_UPGRADE;
     }
 
@@ -19,13 +19,17 @@ import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 @Slf4j
 @Order(400)
 @RequiredArgsConstructor
-public class ReplyReminderEventHandler implements MessageHandler {
+public class ReplyReminderEventHandler implements ClassifiedMessageHandler {
+
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.REMINDER_RESPONSE_TAKEN, MessageReceivedType.REMINDER_RESPONSE_SNOOZED, MessageReceivedType.REMINDER_RESPONSE_SKIPPED);
 
     private final MessageClassifier messageClassifier;
     private final ReminderEventService reminderEventService;
@@ -33,9 +37,24 @@ public class ReplyReminderEventHandler implements MessageHandler {
     private final ReminderService reminderService;
     private final UserService userService;
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
+    @Override
+    public boolean hasShapeClaim() {
+        return true;
+    }
+
+    @Override
+    public boolean claimsByShape(AIMessage message) {
+        return isPossibleReminderReply(message);
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto dto = messageClassifier.classify(message);
+        AiMessageProcessorDto dto = messageClassifier.classificationOf(message);
         if (dto == null || dto.getType() == null) {
             return isPossibleReminderReply(message);
         }
@@ -48,7 +67,7 @@ public class ReplyReminderEventHandler implements MessageHandler {
     @Override
     public void handle(AIMessage message) {
         log.info("Updating reminder event status for message id={} whatsappId={}", message.getId(), message.getWhatsappId());
-        AiMessageProcessorDto dto = messageClassifier.classify(message);
+        AiMessageProcessorDto dto = messageClassifier.classificationOf(message);
         if (dto == null || dto.getType() == null) {
             notifyUnrecognizedResponse(message);
             return;
@@ -14,22 +14,31 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 @Order(305)
 @RequiredArgsConstructor
-public class ShowActiveRemindersHandler implements MessageHandler {
+public class ShowActiveRemindersHandler implements ClassifiedMessageHandler {
+
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.SHOW_ACTIVE_REMINDERS);
 
     private final MessageClassifier messageClassifier;
     private final ReminderService reminderService;
     private final UserService userService;
     private final NotificationService notificationService;
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto dto = messageClassifier.classify(message);
+        AiMessageProcessorDto dto = messageClassifier.classificationOf(message);
         return dto.getType() == MessageReceivedType.SHOW_ACTIVE_REMINDERS;
     }
 
@@ -12,18 +12,28 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 @Component
 @Order(100)
 @RequiredArgsConstructor
-public class WelcomeMessageHandler implements MessageHandler {
+public class WelcomeMessageHandler implements ClassifiedMessageHandler {
+
+    private static final Set<MessageReceivedType> HANDLED_TYPES = EnumSet.of(MessageReceivedType.WELCOME);
 
     private final MessageClassifier messageClassifier;
     private final NotificationService notificationService;
     private final UserService userService;
 
+    @Override
+    public Set<MessageReceivedType> handledTypes() {
+        return HANDLED_TYPES;
+    }
+
     @Override
     public boolean supports(AIMessage message) {
-        AiMessageProcessorDto dto = messageClassifier.classify(message);
+        AiMessageProcessorDto dto = messageClassifier.classificationOf(message);
         return dto.getType() == MessageReceivedType.WELCOME;
     }
 
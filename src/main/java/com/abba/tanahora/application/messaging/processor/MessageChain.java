@@ -1,25 +1,90 @@
 package com.abba.tanahora.application.messaging.processor;
 
+import com.abba.tanahora.application.dto.AiMessageProcessorDto;
+import com.abba.tanahora.application.dto.MessageReceivedType;
 import com.abba.tanahora.application.messaging.AIMessage;
+import com.abba.tanahora.application.messaging.classifier.MessageClassifier;
+import com.abba.tanahora.application.messaging.handler.ClassifiedMessageHandler;
 import com.abba.tanahora.application.messaging.handler.MessageHandler;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
+// Dispatch is split by cost. Handlers that decide from the message alone (pending actions, media) run first;
+// only if none claims the message is it classified, once, and routed through an index by classification
+// type. Handlers ordered after every classified handler are fallbacks.
 @Component
-@RequiredArgsConstructor
 public class MessageChain {
 
-    private final List<MessageHandler> handlers;
+    private final MessageClassifier messageClassifier;
+    private final List<MessageHandler> preClassification = new ArrayList<>();
+    private final List<MessageHandler> fallbacks = new ArrayList<>();
+    private final Map<MessageReceivedType, ClassifiedMessageHandler> byType = new EnumMap<>(MessageReceivedType.class);
+    private final Map<MessageReceivedType, List<ClassifiedMessageHandler>> shapeClaimsBefore = new EnumMap<>(MessageReceivedType.class);
+    private final List<ClassifiedMessageHandler> shapeClaims;
 
-    public void process(AIMessage message) {
+    public MessageChain(List<MessageHandler> handlers, MessageClassifier messageClassifier) {
+        this.messageClassifier = messageClassifier;
+
+        List<ClassifiedMessageHandler> classified = handlers.stream()
+                .filter(ClassifiedMessageHandler.class::isInstance)
+                .map(ClassifiedMessageHandler.class::cast)
+                .toList();
+        int lastClassified = classified.isEmpty() ? -1 : handlers.indexOf(classified.getLast());
+        for (int i = 0; i < handlers.size(); i++) {
+            MessageHandler handler = handlers.get(i);
+            if (!(handler instanceof ClassifiedMessageHandler)) {
+                (i < lastClassified ? preClassification : fallbacks).add(handler);
+            }
+        }
+
+        // Per type, the first handler in @Order that handles it, plus the shape claims ordered ahead of it.
+        for (MessageReceivedType type : MessageReceivedType.values()) {
+            List<ClassifiedMessageHandler> claimsBefore = new ArrayList<>();
+            for (ClassifiedMessageHandler handler : classified) {
+                if (handler.handledTypes().contains(type)) {
+                    byType.put(type, handler);
+                    break;
+                }
+                if (handler.hasShapeClaim()) {
+                    claimsBefore.add(handler);
+                }
+            }
+            shapeClaimsBefore.put(type, List.copyOf(claimsBefore));
+        }
+        this.shapeClaims = classified.stream().filter(ClassifiedMessageHandler::hasShapeClaim).toList();
+    }
 
-        for (MessageHandler handler : handlers) {
+    public void process(AIMessage message) {
+        for (MessageHandler handler : preClassification) {
             if (handler.supports(message)) {
                 handler.handle(message);
                 return;
             }
         }
+
+        AiMessageProcessorDto classification = messageClassifier.classificationOf(message);
+        MessageReceivedType type = classification == null ? null : classification.getType();
+        for (ClassifiedMessageHandler handler : type == null ? shapeClaims : shapeClaimsBefore.get(type)) {
+            if (handler.claimsByShape(message)) {
+                handler.handle(message);
+                return;
+            }
+        }
+        MessageHandler handler = type == null ? null : byType.get(type);
+        if (handler != null) {
+            handler.handle(message);
+            return;
+        }
+
+        for (MessageHandler fallback : fallbacks) {
+            if (fallback.supports(message)) {
+                fallback.handle(message);
+                return;
+            }
+        }
     }
 }
@@ -3,24 +3,78 @@ package com.abba.tanahora.application.service;
 import com.abba.tanahora.domain.model.MessageReceived;
 import com.abba.tanahora.domain.model.MessageReceivedStatus;
 import com.abba.tanahora.domain.repository.MessageReceivedRepository;
+import com.abba.tanahora.domain.repository.UserRepository;
+import com.abba.tanahora.domain.service.MessageReceivedPublisher;
 import com.abba.tanahora.domain.service.MessageReceivedService;
+import com.abba.tanahora.infrastructure.config.InboundClaimProperties;
+import com.abba.tanahora.infrastructure.config.InboundRetryProperties;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
 public class MessageReceivedServiceImpl implements MessageReceivedService {
 
+    private static final int MAX_RECENT_IDS = 10000;
+
     private final MessageReceivedRepository messageReceivedRepository;
+    private final UserRepository userRepository;
+    private final ObjectProvider<MessageReceivedPublisher> messageReceivedPublisher;
+    private final InboundClaimProperties claimProperties;
+    private final InboundRetryProperties retryProperties;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, Boolean> recentIds = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_RECENT_IDS;
+        }
+    };
+
+    // Meta redelivers webhooks, so ingest is insert-if-absent: a message id already stored is never reset to PENDING.
+    // The recent-id filter answers hot redeliveries without a round trip; Mongo stays the source of truth.
+    @Override
+    public boolean receiveMessage(MessageReceived messageReceived) {
+        return !receiveMessages(List.of(messageReceived)).isEmpty();
+    }
 
+    // Returns the messages that were new; redelivered ones are dropped.
     @Override
-    public void receiveMessage(MessageReceived messageReceived) {
-        messageReceived.setStatus(MessageReceivedStatus.PENDING);
-        messageReceived.setReceivedAt(OffsetDateTime.now());
-        messageReceivedRepository.save(messageReceived);
+    public List<MessageReceived> receiveMessages(List<MessageReceived> messages) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<MessageReceived> fresh = new ArrayList<>(messages.size());
+        for (MessageReceived messageReceived : messages) {
+            if (isRecent(messageReceived.getId())) {
+                continue;
+            }
+            messageReceived.setStatus(MessageReceivedStatus.PENDING);
+            messageReceived.setReceivedAt(now);
+            fresh.add(messageReceived);
+        }
+
+        List<MessageReceived> inserted = messageReceivedRepository.insertAllIfAbsent(fresh);
+        fresh.forEach(messageReceived -> remember(messageReceived.getId()));
+
+        inserted.stream()
+                .map(MessageReceived::getWhatsappId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(whatsappId -> userRepository.updateLastInboundAt(whatsappId, now));
+        inserted.forEach(messageReceived ->
+                messageReceivedPublisher.ifAvailable(publisher -> publisher.publish(messageReceived)));
+        return inserted;
     }
 
     @Override
@@ -33,16 +87,87 @@ public class MessageReceivedServiceImpl implements MessageReceivedService {
     }
 
     @Override
-    public void markAsError(String id) {
-        messageReceivedRepository.findById(id)
-                .ifPresent(messageReceived -> {
-                    messageReceived.markAsError();
+    public MessageReceivedStatus registerFailure(String id, Exception error) {
+        return messageReceivedRepository.findById(id)
+                .map(messageReceived -> {
+                    OffsetDateTime nextAttemptAt = OffsetDateTime.now().plus(retryDelay(messageReceived.getAttempts() + 1));
+                    messageReceived.registerFailure(describe(error), retryProperties.getMaxAttempts(), nextAttemptAt);
                     messageReceivedRepository.save(messageReceived);
-                });
+                    return messageReceived.getStatus();
+                })
+                .orElse(MessageReceivedStatus.ERROR);
+    }
+
+    // Claims one bounded page, oldest first. Each claim is an atomic PENDING -> PROCESSING transition,
+    // so instances polling at the same time never get the same message.
+    @Override
+    public List<MessageReceived> claimPendingMessages(OffsetDateTime receivedBefore) {
+        List<MessageReceived> claimed = new ArrayList<>();
+        while (claimed.size() < claimProperties.getPageSize()) {
+            Optional<MessageReceived> next = messageReceivedRepository.claimOldestPending(owner(), receivedBefore, claimExpiresAt());
+            if (next.isEmpty()) {
+                break;
+            }
+            claimed.add(next.get());
+        }
+        return claimed;
+    }
+
+    // Retries are capped per run, so an outage of a downstream service cannot turn into a retry storm.
+    @Override
+    public List<MessageReceived> claimDueRetries() {
+        List<MessageReceived> claimed = new ArrayList<>();
+        while (claimed.size() < retryProperties.getRetriesPerRun()) {
+            Optional<MessageReceived> next = messageReceivedRepository.claimDueRetry(owner(), claimExpiresAt());
+            if (next.isEmpty()) {
+                break;
+            }
+            claimed.add(next.get());
+        }
+        return claimed;
     }
 
     @Override
-    public List<MessageReceived> getPendingMessages() {
-        return messageReceivedRepository.findAllPending();
+    public Optional<MessageReceived> claimMessage(String id) {
+        return messageReceivedRepository.claimById(id, owner(), claimExpiresAt());
+    }
+
+    @Override
+    public long redriveFailedMessages(Collection<String> ids) {
+        return messageReceivedRepository.redriveFailed(ids);
+    }
+
+    // Exponential backoff with equal jitter: at least half of the capped delay, so retries never bunch up at zero.
+    private Duration retryDelay(int attempt) {
+        double exponential = retryProperties.getInitialBackoffMs() * Math.pow(retryProperties.getMultiplier(), attempt - 1);
+        long capped = (long) Math.min(retryProperties.getMaxBackoffMs(), exponential);
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private String describe(Exception error) {
+        String description = error.getClass().getSimpleName() + (error.getMessage() == null ? "" : ": " + error.getMessage());
+        return description.length() > 500 ? description.substring(0, 500) : description;
+    }
+
+    private boolean isRecent(String id) {
+        synchronized (recentIds) {
+            return recentIds.containsKey(id);
+        }
+    }
+
+    private void remember(String id) {
+        synchronized (recentIds) {
+            recentIds.put(id, Boolean.TRUE);
+        }
+    }
+
+    private String owner() {
+        String owner = claimProperties.getOwner();
+        return owner == null || owner.isBlank() ? instanceId : owner;
+    }
+
+    private OffsetDateTime claimExpiresAt() {
+        return OffsetDateTime.now().plus(Duration.ofMillis(claimProperties.getLeaseMs()));
     }
 }
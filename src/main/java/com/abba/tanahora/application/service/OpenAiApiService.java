@@ -1,5 +1,6 @@
 package com.abba.tanahora.application.service;
 
+import com.abba.tanahora.infrastructure.config.OpenAiStageProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.UserMessage;
@@ -23,20 +24,20 @@ import java.util.Objects;
 public class OpenAiApiService {
 
     private final OpenAiChatModel openAiChatModel;
+    private final OpenAiStageProperties stageProperties;
 
     public <T> T sendPrompt(String stringPrompt, Class<T> schema) {
+        return sendPrompt(stringPrompt, schema, null);
+    }
+
+    public <T> T sendPrompt(String stringPrompt, Class<T> schema, OpenAiStage stage) {
 
-        log.debug("Sending prompt to OpenAI: {}", stringPrompt);
+        log.debug("Sending prompt to OpenAI: stage={} prompt={}", stage, stringPrompt);
 
         var converter = new BeanOutputConverter<>(schema);
         String jsonSchema = converter.getJsonSchema();
 
-        var prompt = new Prompt(
-                stringPrompt,
-                OpenAiChatOptions.builder()
-                        .responseFormat(new ResponseFormat(ResponseFormat.Type.JSON_SCHEMA, jsonSchema))
-                        .build()
-        );
+        var prompt = new Prompt(stringPrompt, options(jsonSchema, stage));
 
         var response = openAiChatModel.call(prompt);
 
@@ -73,6 +74,25 @@ public class OpenAiApiService {
         return converter.convert(Objects.requireNonNull(responseText));
     }
 
+    private OpenAiChatOptions options(String jsonSchema, OpenAiStage stage) {
+        var builder = OpenAiChatOptions.builder()
+                .responseFormat(new ResponseFormat(ResponseFormat.Type.JSON_SCHEMA, jsonSchema));
+        if (stage == null) {
+            return builder.build();
+        }
+        OpenAiStageProperties.Stage settings = switch (stage) {
+            case INTENT -> stageProperties.getIntent();
+            case EXTRACTION -> stageProperties.getExtraction();
+        };
+        if (settings.getModel() != null && !settings.getModel().isBlank()) {
+            builder.model(settings.getModel());
+        }
+        if (settings.getMaxTokens() != null) {
+            builder.maxTokens(settings.getMaxTokens());
+        }
+        return builder.build();
+    }
+
     private MimeType parseMimeType(String mimeType) {
         if (mimeType == null || mimeType.isBlank()) {
             return MimeTypeUtils.IMAGE_JPEG;
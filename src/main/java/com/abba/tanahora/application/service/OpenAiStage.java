@@ -0,0 +1,8 @@
+package com.abba.tanahora.application.service;
+
+public enum OpenAiStage {
+
+    INTENT,
+    EXTRACTION
+
+}
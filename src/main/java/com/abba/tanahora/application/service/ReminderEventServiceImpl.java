@@ -2,12 +2,16 @@ package com.abba.tanahora.application.service;
 
 import com.abba.tanahora.application.dto.MessageReceivedType;
 import com.abba.tanahora.domain.model.Reminder;
+import com.abba.tanahora.domain.model.ReminderDispatchState;
 import com.abba.tanahora.domain.model.ReminderEvent;
 import com.abba.tanahora.domain.model.ReminderEventStatus;
 import com.abba.tanahora.domain.model.ReminderTakenHistory;
 import com.abba.tanahora.domain.model.User;
+import com.abba.tanahora.domain.repository.ReminderDispatchWrites;
 import com.abba.tanahora.domain.repository.ReminderEventRepository;
+import com.abba.tanahora.domain.repository.ReminderRepository;
 import com.abba.tanahora.domain.repository.ReminderTakenHistoryRepository;
+import com.abba.tanahora.domain.service.ReminderDispatchScheduler;
 import com.abba.tanahora.domain.service.ReminderEventService;
 import com.abba.tanahora.domain.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -31,9 +35,13 @@ import java.util.stream.Collectors;
 public class ReminderEventServiceImpl implements ReminderEventService {
 
     private final ReminderEventRepository reminderEventRepository;
+    private final ReminderRepository reminderRepository;
     private final ReminderTakenHistoryRepository reminderTakenHistoryRepository;
     private final UserService userService;
+    private final ReminderDispatchScheduler reminderDispatchScheduler;
 
+    // A sent message is recorded right away rather than with the cycle's batch: a quick reply must find its event,
+    // and a batch that fails after the send must not leave the reminder looking unsent.
     @Override
     public void registerDispatch(Reminder reminder, String whatsappMessageId) {
         ReminderEvent event = new ReminderEvent();
@@ -42,7 +50,21 @@ public class ReminderEventServiceImpl implements ReminderEventService {
         event.setUserWhatsappId(reminder.getUser().getWhatsappId());
         event.setPatientId(reminder.getPatientId());
         event.setPatientName(reminder.getPatientName());
-        reminderEventRepository.save(event);
+        reminderEventRepository.insert(event);
+        syncDispatchState(reminder, ReminderDispatchState.of(event));
+    }
+
+    @Override
+    public void registerMissed(Reminder reminder, OffsetDateTime occurrence, ReminderDispatchWrites writes) {
+        ReminderEvent event = new ReminderEvent();
+        event.setReminder(reminder);
+        event.setUserWhatsappId(reminder.getUser().getWhatsappId());
+        event.setPatientId(reminder.getPatientId());
+        event.setPatientName(reminder.getPatientName());
+        event.setSentAt(occurrence == null ? OffsetDateTime.now() : occurrence);
+        event.setStatus(ReminderEventStatus.MISSED);
+        writes.insertEvent(event);
+        syncDispatchState(reminder, ReminderDispatchState.of(event), writes);
     }
 
     @Override
@@ -59,6 +81,7 @@ public class ReminderEventServiceImpl implements ReminderEventService {
     public void updateStatus(ReminderEvent reminderEvent, ReminderEventStatus reminderEventStatus) {
         reminderEvent.setStatus(reminderEventStatus);
         reminderEventRepository.save(reminderEvent);
+        syncDispatchState(reminderEvent);
     }
 
     @Override
@@ -69,6 +92,32 @@ public class ReminderEventServiceImpl implements ReminderEventService {
         event.setResponseReceivedAt(null);
         event.setSnoozedUntil(null);
         reminderEventRepository.save(event);
+        syncDispatchState(event);
+    }
+
+    @Override
+    public void markCurrentAsMissed(Reminder reminder, ReminderDispatchWrites writes) {
+        ReminderDispatchState state = reminder.getDispatchState();
+        writes.updateEventStatus(state.getEventId(), ReminderEventStatus.MISSED);
+        syncDispatchState(reminder, state.withStatus(ReminderEventStatus.MISSED), writes);
+    }
+
+    @Override
+    public void redispatchCurrent(Reminder reminder, String whatsappMessageId) {
+        ReminderDispatchState state = reminder.getDispatchState();
+        OffsetDateTime sentAt = OffsetDateTime.now();
+        reminderEventRepository.updateDispatch(state.getEventId(), whatsappMessageId, sentAt);
+        syncDispatchState(reminder, state.redispatchedAt(sentAt));
+    }
+
+    // Events go first so a reminder never points at an event that has not been written yet.
+    @Override
+    public void flush(ReminderDispatchWrites writes) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        reminderEventRepository.bulkWrite(writes);
+        reminderRepository.bulkWrite(writes);
     }
 
     @Override
@@ -93,6 +142,7 @@ public class ReminderEventServiceImpl implements ReminderEventService {
             e.setStatus(reminderEventStatus);
             e.setResponseReceivedAt(OffsetDateTime.now());
             reminderEventRepository.save(e);
+            syncDispatchState(e);
             if (reminderEventStatus == ReminderEventStatus.TAKEN) {
                 reminderTakenHistoryRepository.save(buildTakenHistory(e, user));
             }
@@ -122,6 +172,7 @@ public class ReminderEventServiceImpl implements ReminderEventService {
             reminderEvent.setStatus(ReminderEventStatus.MISSED);
             reminderEvent.setResponseReceivedAt(OffsetDateTime.now());
             reminderEventRepository.save(reminderEvent);
+            syncDispatchState(reminderEvent);
             return Optional.of(reminderEvent);
         }
 
@@ -130,6 +181,7 @@ public class ReminderEventServiceImpl implements ReminderEventService {
         reminderEvent.setResponseReceivedAt(OffsetDateTime.now());
         reminderEvent.setSnoozeCount(reminderEvent.getSnoozeCount() + 1);
         reminderEventRepository.save(reminderEvent);
+        syncDispatchState(reminderEvent);
         return Optional.of(reminderEvent);
     }
 
@@ -166,6 +218,32 @@ public class ReminderEventServiceImpl implements ReminderEventService {
                         Collectors.toCollection(ArrayList::new)));
     }
 
+    private void syncDispatchState(ReminderEvent event) {
+        if (event.getReminder() != null) {
+            syncDispatchState(event.getReminder(), ReminderDispatchState.of(event));
+        }
+    }
+
+    // The in-memory reminder is updated too, so a later full save of it does not write back a stale state.
+    // Every transition arms its own deadline, so missed timeouts and snooze expiries fire when due.
+    private void syncDispatchState(Reminder reminder, ReminderDispatchState state) {
+        if (!state.supersedes(reminder.getDispatchState())) {
+            return;
+        }
+        reminder.setDispatchState(state);
+        reminderRepository.updateDispatchState(reminder.getId(), state);
+        reminderDispatchScheduler.scheduleDeadline(reminder);
+    }
+
+    private void syncDispatchState(Reminder reminder, ReminderDispatchState state, ReminderDispatchWrites writes) {
+        if (!state.supersedes(reminder.getDispatchState())) {
+            return;
+        }
+        reminder.setDispatchState(state);
+        writes.updateDispatchState(reminder.getId(), state);
+        reminderDispatchScheduler.scheduleDeadline(reminder);
+    }
+
     private Map<UUID, ReminderTakenHistory> latestHistoryByEventId(List<ReminderTakenHistory> histories) {
         Map<UUID, ReminderTakenHistory> latestHistoryByEventId = new LinkedHashMap<>();
         for (ReminderTakenHistory history : histories) {
@@ -4,18 +4,20 @@ import com.abba.tanahora.application.exceptions.ReminderLimitException;
 import com.abba.tanahora.application.notification.BasicWhatsAppMessage;
 import com.abba.tanahora.domain.exceptions.InvalidRruleException;
 import com.abba.tanahora.domain.model.*;
+import com.abba.tanahora.domain.repository.ReminderDispatchWrites;
 import com.abba.tanahora.domain.repository.ReminderRepository;
 import com.abba.tanahora.domain.service.NotificationService;
+import com.abba.tanahora.domain.service.ReminderDispatchScheduler;
 import com.abba.tanahora.domain.service.ReminderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-
-import static com.abba.tanahora.domain.utils.Constants.BRAZIL_ZONEID;
+import java.util.UUID;
 
 @Slf4j
 @Service
@@ -24,6 +26,7 @@ public class ReminderServiceImpl implements ReminderService {
 
     private final ReminderRepository reminderRepository;
     private final NotificationService notificationService;
+    private final ReminderDispatchScheduler reminderDispatchScheduler;
 
     @Override
     public Reminder scheduleMedication(User user, Patient patient, Medication med, String rrule) {
@@ -42,8 +45,11 @@ public class ReminderServiceImpl implements ReminderService {
             reminder.setUser(user);
             reminder.setPatientId(patient.getId());
             reminder.setPatientName(patient.getName());
+            reminder.setDispatchHash(Reminder.dispatchHashOf(reminder.getId()));
             reminder.updateNextDispatch();
-            return reminderRepository.save(reminder);
+            Reminder saved = reminderRepository.save(reminder);
+            reminderDispatchScheduler.schedule(saved);
+            return saved;
         } else {
             throw new ReminderLimitException("No premium user already has a reminder");
         }
@@ -51,8 +57,33 @@ public class ReminderServiceImpl implements ReminderService {
 
 
     @Override
-    public List<Reminder> getNextRemindersToNotify() {
-        return reminderRepository.findPendingNextDispatch(OffsetDateTime.now(BRAZIL_ZONEID));
+    public List<Reminder> getByIds(Collection<UUID> ids) {
+        return reminderRepository.findAllById(ids);
+    }
+
+    @Override
+    public List<Reminder> getActiveDispatchSchedule() {
+        return reminderRepository.findDispatchScheduleByStatus(ReminderStatus.ACTIVE);
+    }
+
+    @Override
+    public List<Reminder> getActiveDispatchSchedule(int partitionCount, Collection<Integer> partitions) {
+        return reminderRepository.findDispatchScheduleByPartitions(ReminderStatus.ACTIVE, partitionCount, partitions);
+    }
+
+    @Override
+    public List<Reminder> getActiveDispatchDueBefore(OffsetDateTime dueBefore) {
+        return reminderRepository.findDispatchDueBefore(ReminderStatus.ACTIVE, dueBefore, 0, null);
+    }
+
+    @Override
+    public List<Reminder> getActiveDispatchDueBefore(OffsetDateTime dueBefore, int partitionCount, Collection<Integer> partitions) {
+        return reminderRepository.findDispatchDueBefore(ReminderStatus.ACTIVE, dueBefore, partitionCount, partitions);
+    }
+
+    @Override
+    public int assignMissingDispatchHashes() {
+        return reminderRepository.assignMissingDispatchHashes(ReminderStatus.ACTIVE);
     }
 
     @Override
@@ -60,16 +91,42 @@ public class ReminderServiceImpl implements ReminderService {
         return reminderRepository.findByUserAndStatus(user, ReminderStatus.ACTIVE);
     }
 
+    @Override
+    public Optional<Reminder> getNextByUser(User user) {
+        return reminderRepository.findFirstByUserAndStatusAndNextDispatchNotNullOrderByNextDispatchAsc(user, ReminderStatus.ACTIVE);
+    }
+
     @Override
     public void cancelReminder(Reminder reminder) {
         reminder.cancelReminder();
         reminderRepository.save(reminder);
+        reminderDispatchScheduler.unschedule(reminder);
     }
 
     @Override
     public void updateReminderNextDispatch(Reminder reminder) {
         reminder.updateNextDispatch();
         reminderRepository.save(reminder);
+        reminderDispatchScheduler.schedule(reminder);
+        notifyNextDispatch(reminder);
+    }
+
+    @Override
+    public void updateReminderNextDispatch(Reminder reminder, ReminderDispatchWrites writes) {
+        reminder.updateNextDispatch();
+        writes.updateSchedule(reminder);
+        reminderDispatchScheduler.schedule(reminder);
+        notifyNextDispatch(reminder);
+    }
+
+    @Override
+    public void rescheduleQuietly(Reminder reminder, ReminderDispatchWrites writes) {
+        reminder.updateNextDispatch();
+        writes.updateSchedule(reminder);
+        reminderDispatchScheduler.schedule(reminder);
+    }
+
+    private void notifyNextDispatch(Reminder reminder) {
         if (reminder.getStatus() == ReminderStatus.ACTIVE) {
             notificationService.sendNotification(reminder.getUser(), BasicWhatsAppMessage.builder()
                     .to(reminder.getUser().getWhatsappId())
@@ -0,0 +1,26 @@
+package com.abba.tanahora.domain.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.OffsetDateTime;
+
+@Document("message_classifications")
+@Data
+public class MessageClassificationEntry {
+
+    @Id
+    private String id;
+    private String type;
+    private String rrule;
+    private String medication;
+    private String dosage;
+    private OffsetDateTime startDate;
+    private String patientName;
+    private OffsetDateTime createdAt;
+    @Indexed(name = "expires_at_ttl_idx", expireAfter = "0s")
+    private OffsetDateTime expiresAt;
+
+}
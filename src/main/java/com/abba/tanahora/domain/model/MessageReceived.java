@@ -2,12 +2,20 @@ package com.abba.tanahora.domain.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.OffsetDateTime;
 
 @Document("messages_received")
+@CompoundIndexes({
+        @CompoundIndex(name = "whatsapp_received_idx", def = "{'whatsappId': 1, 'receivedAt': -1}"),
+        @CompoundIndex(name = "status_received_idx", def = "{'status': 1, 'receivedAt': 1}"),
+        @CompoundIndex(name = "status_claim_expires_idx", def = "{'status': 1, 'claimExpiresAt': 1}"),
+        @CompoundIndex(name = "status_next_attempt_idx", def = "{'status': 1, 'nextAttemptAt': 1}")
+})
 @Data
 public class MessageReceived {
 
@@ -26,6 +34,11 @@ public class MessageReceived {
     private MessageReceivedStatus status = MessageReceivedStatus.PENDING;
     private OffsetDateTime receivedAt = OffsetDateTime.now();
     private OffsetDateTime processedAt;
+    private String claimedBy;
+    private OffsetDateTime claimExpiresAt;
+    private int attempts;
+    private OffsetDateTime nextAttemptAt;
+    private String lastError;
 
     @DBRef
     ReminderEvent reminderEvent;
@@ -35,9 +48,19 @@ public class MessageReceived {
         this.processedAt = OffsetDateTime.now();
     }
 
-    public void markAsError() {
-        this.status = MessageReceivedStatus.ERROR;
-        this.processedAt = OffsetDateTime.now();
+    public void registerFailure(String error, int maxAttempts, OffsetDateTime nextAttemptAt) {
+        this.attempts++;
+        this.lastError = error;
+        this.claimedBy = null;
+        this.claimExpiresAt = null;
+        if (attempts >= maxAttempts) {
+            this.status = MessageReceivedStatus.DEAD_LETTER;
+            this.processedAt = OffsetDateTime.now();
+            this.nextAttemptAt = null;
+        } else {
+            this.status = MessageReceivedStatus.PENDING;
+            this.nextAttemptAt = nextAttemptAt;
+        }
     }
 
 }
@@ -2,6 +2,6 @@ package com.abba.tanahora.domain.model;
 
 public enum MessageReceivedStatus {
 
-    PENDING, PROCESSED, ERROR
+    PENDING, PROCESSING, PROCESSED, ERROR, DEAD_LETTER
 
 }
@@ -1,24 +1,24 @@
 package com.abba.tanahora.domain.model;
 
 import com.abba.tanahora.domain.exceptions.InvalidRruleException;
+import com.abba.tanahora.domain.utils.RecurrenceRules;
 import lombok.Data;
 import org.dmfs.rfc5545.DateTime;
-import org.dmfs.rfc5545.RecurrenceSet;
 import org.dmfs.rfc5545.recur.InvalidRecurrenceRuleException;
 import org.dmfs.rfc5545.recur.RecurrenceRule;
 import org.dmfs.rfc5545.recurrenceset.OfRule;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.Date;
 import java.util.Iterator;
 import java.util.TimeZone;
 import java.util.UUID;
@@ -27,10 +27,15 @@ import static com.abba.tanahora.domain.utils.Constants.BRAZIL_ZONEID;
 import static com.abba.tanahora.domain.utils.Constants.NOT_INFORMED;
 
 @Document(collection = "reminders")
-@CompoundIndex(name = "dispatch_idx", def = "{'nextDispatch': 1, 'status': 1}")
+@CompoundIndexes({
+        @CompoundIndex(name = "dispatch_idx", def = "{'nextDispatch': 1, 'status': 1}"),
+        @CompoundIndex(name = "user_next_dispatch_idx", def = "{'user': 1, 'status': 1, 'nextDispatch': 1}")
+})
 @Data
 public class Reminder {
 
+    private static final TimeZone BRAZIL_TIMEZONE = TimeZone.getTimeZone(BRAZIL_ZONEID);
+
     @Id
     private UUID id = UUID.randomUUID();
     private OffsetDateTime nextDispatch;
@@ -46,34 +51,49 @@ public class Reminder {
     @DBRef
     private User user;
     private Medication medication;
+    private OffsetDateTime recurrenceAnchor;
+    private int recurrenceIndex;
+    @Indexed(name = "dispatch_hash_idx")
+    private Integer dispatchHash;
+    private ReminderDispatchState dispatchState;
+
+    public static int dispatchHashOf(UUID id) {
+        return id.hashCode() & Integer.MAX_VALUE;
+    }
 
     public void updateNextDispatch() {
         try {
-            RecurrenceRule rule = new RecurrenceRule(rrule);
-            TimeZone timeZone = TimeZone.getTimeZone(BRAZIL_ZONEID);
-            DateTime now = DateTime.now(timeZone);
-            DateTime start = createdAt == null
-                    ? now
-                    : new DateTime(timeZone, createdAt.toInstant().toEpochMilli());
-            RecurrenceSet recurrenceInstances = new OfRule(rule, start);
-            Iterator<DateTime> iterator = recurrenceInstances.iterator();
-            if (!iterator.hasNext()) {
-                this.nextDispatch = null;
-                this.status = ReminderStatus.COMPLETED;
-                return;
-            }
-            DateTime next = iterator.next();
-            while (next.getTimestamp() <= now.getTimestamp()) {
-                if (!iterator.hasNext()) {
-                    this.nextDispatch = null;
-                    this.status = ReminderStatus.COMPLETED;
+            RecurrenceRule rule = RecurrenceRules.parse(rrule);
+            long now = System.currentTimeMillis();
+            boolean resuming = recurrenceAnchor != null;
+            long start = resuming
+                    ? recurrenceAnchor.toInstant().toEpochMilli()
+                    : createdAt == null ? now : createdAt.toInstant().toEpochMilli();
+            int index = resuming ? recurrenceIndex : 0;
+            Integer count = rule.getCount();
+            // a reminder may be sent slightly ahead of its occurrence, which must not be emitted again
+            long threshold = nextDispatch == null ? now : Math.max(now, nextDispatch.toInstant().toEpochMilli());
+
+            // Resuming from the last emitted occurrence restarts lib-recur's COUNT, so the limit is enforced here.
+            Iterator<DateTime> iterator = new OfRule(rule, new DateTime(BRAZIL_TIMEZONE, start)).iterator();
+            while (iterator.hasNext()) {
+                long next = iterator.next().getTimestamp();
+                if (resuming && next <= start) {
+                    continue;
+                }
+                index++;
+                if (count != null && index > count) {
+                    break;
+                }
+                if (next > threshold) {
+                    this.nextDispatch = OffsetDateTime.ofInstant(Instant.ofEpochMilli(next), BRAZIL_ZONEID);
+                    this.recurrenceAnchor = this.nextDispatch;
+                    this.recurrenceIndex = index;
                     return;
                 }
-                next = iterator.next();
             }
-            this.nextDispatch = OffsetDateTime.of(
-                    LocalDateTime.ofInstant(new Date(next.getTimestamp()).toInstant(), OffsetDateTime.now().getOffset()),
-                    OffsetDateTime.now().getOffset());
+            this.nextDispatch = null;
+            this.status = ReminderStatus.COMPLETED;
         } catch (InvalidRecurrenceRuleException e) {
             throw new InvalidRruleException("Invalid RRULE find: " + rrule, e);
         }
@@ -0,0 +1,73 @@
+package com.abba.tanahora.domain.model;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+@Data
+public class ReminderDispatchState {
+
+    public static final Duration MISSED_TIMEOUT = Duration.ofMinutes(30);
+
+    private UUID eventId;
+    private ReminderEventStatus status;
+    private OffsetDateTime sentAt;
+    private OffsetDateTime snoozedUntil;
+    private int snoozeCount;
+
+    public static ReminderDispatchState of(ReminderEvent event) {
+        ReminderDispatchState state = new ReminderDispatchState();
+        state.setEventId(event.getId());
+        state.setStatus(event.getStatus());
+        state.setSentAt(event.getSentAt());
+        state.setSnoozedUntil(event.getSnoozedUntil());
+        state.setSnoozeCount(event.getSnoozeCount());
+        return state;
+    }
+
+    public ReminderDispatchState withStatus(ReminderEventStatus status) {
+        ReminderDispatchState state = copy();
+        state.setStatus(status);
+        return state;
+    }
+
+    public ReminderDispatchState redispatchedAt(OffsetDateTime sentAt) {
+        ReminderDispatchState state = copy();
+        state.setStatus(ReminderEventStatus.PENDING);
+        state.setSentAt(sentAt);
+        state.setSnoozedUntil(null);
+        return state;
+    }
+
+    // The moment this state has to be looked at again: a pending reminder goes missed, a snoozed one is resent.
+    public OffsetDateTime deadline() {
+        if (status == ReminderEventStatus.PENDING && sentAt != null) {
+            return sentAt.plus(MISSED_TIMEOUT);
+        }
+        if (status == ReminderEventStatus.SNOOZED) {
+            return snoozedUntil;
+        }
+        return null;
+    }
+
+    // An older event must never overwrite the state of a newer one, e.g. a late reply to a previous reminder.
+    public boolean supersedes(ReminderDispatchState current) {
+        return current == null
+                || Objects.equals(current.getEventId(), eventId)
+                || current.getSentAt() == null
+                || (sentAt != null && !sentAt.isBefore(current.getSentAt()));
+    }
+
+    private ReminderDispatchState copy() {
+        ReminderDispatchState state = new ReminderDispatchState();
+        state.setEventId(eventId);
+        state.setStatus(status);
+        state.setSentAt(sentAt);
+        state.setSnoozedUntil(snoozedUntil);
+        state.setSnoozeCount(snoozeCount);
+        return state;
+    }
+}
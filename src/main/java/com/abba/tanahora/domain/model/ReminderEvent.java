@@ -2,6 +2,7 @@ package com.abba.tanahora.domain.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -10,6 +11,7 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Document(collection = "reminder_events")
+@CompoundIndex(name = "reminder_status_sent_idx", def = "{'reminder': 1, 'status': 1, 'sentAt': -1}")
 @Data
 public class ReminderEvent {
 
@@ -0,0 +1,19 @@
+package com.abba.tanahora.domain.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.OffsetDateTime;
+
+@Document("scheduler_leases")
+@Data
+public class SchedulerLease {
+
+    @Id
+    private Integer partition;
+    private String owner;
+    private OffsetDateTime acquiredAt;
+    private OffsetDateTime expiresAt;
+
+}
@@ -0,0 +1,19 @@
+package com.abba.tanahora.domain.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.OffsetDateTime;
+
+@Document("scheduler_nodes")
+@Data
+public class SchedulerNode {
+
+    @Id
+    private String id;
+    @Indexed(name = "last_seen_ttl_idx", expireAfter = "1d")
+    private OffsetDateTime lastSeenAt;
+
+}
@@ -6,6 +6,7 @@ import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +16,8 @@ import java.util.List;
 @Data
 public class User {
 
+    public static final Duration FREE_WINDOW = Duration.ofHours(24);
+
     @Id
     private String id;
     @Indexed
@@ -28,6 +31,7 @@ public class User {
     private PendingUserAction pendingAction;
     private OffsetDateTime pendingActionCreatedAt;
     private String pendingCancelMedicationName;
+    private OffsetDateTime lastInboundAt;
     private List<String> pendingCancelReminderIds = new ArrayList<>();
 
     private List<Patient> patients = new ArrayList<>();
@@ -47,6 +51,10 @@ public class User {
         return plan == Plan.PREMIUM && proUntil != null && proUntil.isAfter(OffsetDateTime.now());
     }
 
+    public boolean isFreeWindowOpen() {
+        return lastInboundAt != null && lastInboundAt.isAfter(OffsetDateTime.now().minus(FREE_WINDOW));
+    }
+
     public void downgradeToFree() {
         this.plan = Plan.FREE;
         this.proSince = null;
@@ -0,0 +1,7 @@
+package com.abba.tanahora.domain.repository;
+
+import com.abba.tanahora.domain.model.MessageClassificationEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MessageClassificationRepository extends MongoRepository<MessageClassificationEntry, String> {
+}
@@ -0,0 +1,22 @@
+package com.abba.tanahora.domain.repository;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MessageReceivedRepositoryCustom {
+
+    List<MessageReceived> insertAllIfAbsent(List<MessageReceived> messages);
+
+    Optional<MessageReceived> claimOldestPending(String owner, OffsetDateTime receivedBefore, OffsetDateTime claimExpiresAt);
+
+    Optional<MessageReceived> claimDueRetry(String owner, OffsetDateTime claimExpiresAt);
+
+    Optional<MessageReceived> claimById(String id, String owner, OffsetDateTime claimExpiresAt);
+
+    long redriveFailed(Collection<String> ids);
+
+}
@@ -0,0 +1,109 @@
+package com.abba.tanahora.domain.repository;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.model.MessageReceivedStatus;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@RequiredArgsConstructor
+public class MessageReceivedRepositoryCustomImpl implements MessageReceivedRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    // One unordered insertMany; the WhatsApp message id is the _id, so a redelivered message fails with a
+    // duplicate key without stopping the rest of the batch. Returns the messages actually inserted.
+    @Override
+    public List<MessageReceived> insertAllIfAbsent(List<MessageReceived> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MessageReceived.class)
+                    .insert(messages)
+                    .execute();
+            return messages;
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+            Set<Integer> duplicates = e.getErrors().stream()
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+            return IntStream.range(0, messages.size())
+                    .filter(index -> !duplicates.contains(index))
+                    .mapToObj(messages::get)
+                    .toList();
+        }
+    }
+
+    @Override
+    public Optional<MessageReceived> claimOldestPending(String owner, OffsetDateTime receivedBefore, OffsetDateTime claimExpiresAt) {
+        Query query = Query.query(claimable(OffsetDateTime.now()).and("receivedAt").lt(receivedBefore))
+                .with(Sort.by(Sort.Direction.ASC, "receivedAt"));
+        return claim(query, owner, claimExpiresAt);
+    }
+
+    @Override
+    public Optional<MessageReceived> claimDueRetry(String owner, OffsetDateTime claimExpiresAt) {
+        Query query = Query.query(Criteria.where("status").is(MessageReceivedStatus.PENDING)
+                        .and("attempts").gt(0)
+                        .and("nextAttemptAt").lte(OffsetDateTime.now()))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        return claim(query, owner, claimExpiresAt);
+    }
+
+    @Override
+    public Optional<MessageReceived> claimById(String id, String owner, OffsetDateTime claimExpiresAt) {
+        return claim(Query.query(Criteria.where("_id").is(id).andOperator(claimable(OffsetDateTime.now()))), owner, claimExpiresAt);
+    }
+
+    @Override
+    public long redriveFailed(Collection<String> ids) {
+        Criteria criteria = Criteria.where("status").in(MessageReceivedStatus.DEAD_LETTER, MessageReceivedStatus.ERROR);
+        if (ids != null && !ids.isEmpty()) {
+            criteria = criteria.and("_id").in(ids);
+        }
+        Update update = Update.update("status", MessageReceivedStatus.PENDING)
+                .set("attempts", 0)
+                .unset("nextAttemptAt")
+                .unset("processedAt")
+                .unset("claimedBy")
+                .unset("claimExpiresAt");
+        return mongoTemplate.updateMulti(Query.query(criteria), update, MessageReceived.class).getModifiedCount();
+    }
+
+    // First attempts still pending, plus messages whose claim expired because the worker holding them died.
+    // Messages waiting for a retry are left to claimDueRetry, which honors their backoff.
+    private Criteria claimable(OffsetDateTime now) {
+        return new Criteria().orOperator(
+                Criteria.where("status").is(MessageReceivedStatus.PENDING).and("attempts").not().gt(0),
+                Criteria.where("status").is(MessageReceivedStatus.PROCESSING).and("claimExpiresAt").lt(now));
+    }
+
+    private Optional<MessageReceived> claim(Query query, String owner, OffsetDateTime claimExpiresAt) {
+        Update update = Update.update("status", MessageReceivedStatus.PROCESSING)
+                .set("claimedBy", owner)
+                .set("claimExpiresAt", claimExpiresAt);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true),
+                MessageReceived.class));
+    }
+}
@@ -0,0 +1,71 @@
+package com.abba.tanahora.domain.repository;
+
+import com.abba.tanahora.domain.model.Reminder;
+import com.abba.tanahora.domain.model.ReminderDispatchState;
+import com.abba.tanahora.domain.model.ReminderEvent;
+import com.abba.tanahora.domain.model.ReminderEventStatus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Collects the writes of one dispatch cycle as targeted field updates, flushed as one unordered bulk per collection.
+// Not thread-safe: a batch belongs to the cycle that created it.
+public class ReminderDispatchWrites {
+
+    private final List<ReminderEvent> insertedEvents = new ArrayList<>();
+    private final Map<UUID, Map<String, Object>> eventUpdates = new LinkedHashMap<>();
+    private final Map<UUID, ReminderDispatchState> dispatchStates = new LinkedHashMap<>();
+    private final Map<UUID, Map<String, Object>> scheduleUpdates = new LinkedHashMap<>();
+
+    public void insertEvent(ReminderEvent event) {
+        insertedEvents.add(event);
+    }
+
+    public void updateEventStatus(UUID eventId, ReminderEventStatus status) {
+        eventFields(eventId).put("status", status);
+    }
+
+    public void updateDispatchState(UUID reminderId, ReminderDispatchState state) {
+        dispatchStates.put(reminderId, state);
+    }
+
+    public void updateSchedule(Reminder reminder) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("nextDispatch", reminder.getNextDispatch());
+        fields.put("recurrenceAnchor", reminder.getRecurrenceAnchor());
+        fields.put("recurrenceIndex", reminder.getRecurrenceIndex());
+        fields.put("status", reminder.getStatus());
+        scheduleUpdates.put(reminder.getId(), fields);
+    }
+
+    public boolean isEmpty() {
+        return insertedEvents.isEmpty() && eventUpdates.isEmpty() && dispatchStates.isEmpty() && scheduleUpdates.isEmpty();
+    }
+
+    public int size() {
+        return insertedEvents.size() + eventUpdates.size() + dispatchStates.size() + scheduleUpdates.size();
+    }
+
+    List<ReminderEvent> insertedEvents() {
+        return insertedEvents;
+    }
+
+    Map<UUID, Map<String, Object>> eventUpdates() {
+        return eventUpdates;
+    }
+
+    Map<UUID, ReminderDispatchState> dispatchStates() {
+        return dispatchStates;
+    }
+
+    Map<UUID, Map<String, Object>> scheduleUpdates() {
+        return scheduleUpdates;
+    }
+
+    private Map<String, Object> eventFields(UUID eventId) {
+        return eventUpdates.computeIfAbsent(eventId, id -> new LinkedHashMap<>());
+    }
+}
@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface ReminderEventRepository extends MongoRepository<ReminderEvent, UUID> {
+public interface ReminderEventRepository extends MongoRepository<ReminderEvent, UUID>, ReminderEventRepositoryCustom {
 
     Optional<ReminderEvent> findFirstByWhatsappMessageId(String whatsappMessageId);
     Optional<ReminderEvent> findFirstByUserWhatsappIdOrderBySentAtDesc(String whatsappId);
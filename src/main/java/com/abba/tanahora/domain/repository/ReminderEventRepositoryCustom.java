@@ -0,0 +1,12 @@
+package com.abba.tanahora.domain.repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public interface ReminderEventRepositoryCustom {
+
+    void bulkWrite(ReminderDispatchWrites writes);
+
+    void updateDispatch(UUID eventId, String whatsappMessageId, OffsetDateTime sentAt);
+
+}
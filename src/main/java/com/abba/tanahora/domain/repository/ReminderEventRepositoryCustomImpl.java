@@ -0,0 +1,45 @@
+package com.abba.tanahora.domain.repository;
+
+import com.abba.tanahora.domain.model.ReminderEvent;
+import com.abba.tanahora.domain.model.ReminderEventStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class ReminderEventRepositoryCustomImpl implements ReminderEventRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void bulkWrite(ReminderDispatchWrites writes) {
+        if (writes.insertedEvents().isEmpty() && writes.eventUpdates().isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReminderEvent.class);
+        bulk.insert(writes.insertedEvents());
+        writes.eventUpdates().forEach((eventId, fields) -> {
+            Update update = new Update();
+            fields.forEach(update::set);
+            bulk.updateOne(Query.query(Criteria.where("_id").is(eventId)), update);
+        });
+        bulk.execute();
+    }
+
+    @Override
+    public void updateDispatch(UUID eventId, String whatsappMessageId, OffsetDateTime sentAt) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(eventId)),
+                Update.update("whatsappMessageId", whatsappMessageId)
+                        .set("sentAt", sentAt)
+                        .set("status", ReminderEventStatus.PENDING)
+                        .set("responseReceivedAt", null)
+                        .set("snoozedUntil", null),
+                ReminderEvent.class);
+    }
+}
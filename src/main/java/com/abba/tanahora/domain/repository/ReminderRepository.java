@@ -4,23 +4,23 @@ import com.abba.tanahora.domain.model.Reminder;
 import com.abba.tanahora.domain.model.ReminderStatus;
 import com.abba.tanahora.domain.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
-import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface ReminderRepository extends MongoRepository<Reminder, UUID> {
-
-    List<Reminder> findByNextDispatchLessThanEqualAndStatus(OffsetDateTime now, ReminderStatus status);
+public interface ReminderRepository extends MongoRepository<Reminder, UUID>, ReminderRepositoryCustom {
 
     List<Reminder> findByUserAndStatus(User user, ReminderStatus status);
 
+    Optional<Reminder> findFirstByUserAndStatusAndNextDispatchNotNullOrderByNextDispatchAsc(User user, ReminderStatus status);
+
     List<Reminder> findByStatus(ReminderStatus status);
 
     long countByStatus(ReminderStatus status);
 
-    default List<Reminder> findPendingNextDispatch(OffsetDateTime now) {
-        return findByNextDispatchLessThanEqualAndStatus(now.plusMinutes(5), ReminderStatus.ACTIVE);
-    }
+    @Query(value = "{ 'status': ?0, 'nextDispatch': { $ne: null } }", fields = "{ '_id': 1, 'nextDispatch': 1, 'status': 1, 'dispatchState': 1 }")
+    List<Reminder> findDispatchScheduleByStatus(ReminderStatus status);
 
 }
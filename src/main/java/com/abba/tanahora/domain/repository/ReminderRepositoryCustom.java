@@ -0,0 +1,24 @@
+package com.abba.tanahora.domain.repository;
+
+import com.abba.tanahora.domain.model.Reminder;
+import com.abba.tanahora.domain.model.ReminderDispatchState;
+import com.abba.tanahora.domain.model.ReminderStatus;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ReminderRepositoryCustom {
+
+    List<Reminder> findDispatchScheduleByPartitions(ReminderStatus status, int partitionCount, Collection<Integer> partitions);
+
+    List<Reminder> findDispatchDueBefore(ReminderStatus status, OffsetDateTime dueBefore, int partitionCount, Collection<Integer> partitions);
+
+    int assignMissingDispatchHashes(ReminderStatus status);
+
+    void updateDispatchState(UUID reminderId, ReminderDispatchState state);
+
+    void bulkWrite(ReminderDispatchWrites writes);
+
+}
@@ -0,0 +1,122 @@
+package com.abba.tanahora.domain.repository;
+
+import com.abba.tanahora.domain.model.Reminder;
+import com.abba.tanahora.domain.model.ReminderDispatchState;
+import com.abba.tanahora.domain.model.ReminderEventStatus;
+import com.abba.tanahora.domain.model.ReminderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class ReminderRepositoryCustomImpl implements ReminderRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Reminder> findDispatchScheduleByPartitions(ReminderStatus status, int partitionCount, Collection<Integer> partitions) {
+        if (partitions.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = Query.query(Criteria.where("status").is(status)
+                .and("nextDispatch").ne(null)
+                .orOperator(byPartition(partitionCount, partitions)));
+        query.fields().include("_id", "nextDispatch", "status", "dispatchState");
+        return mongoTemplate.find(query, Reminder.class);
+    }
+
+    // Reminders due up to the given moment, either by their next occurrence or by a snooze ending.
+    // Without partitions every active reminder is considered.
+    @Override
+    public List<Reminder> findDispatchDueBefore(ReminderStatus status, OffsetDateTime dueBefore, int partitionCount, Collection<Integer> partitions) {
+        if (partitions != null && partitions.isEmpty()) {
+            return List.of();
+        }
+
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(new Criteria().orOperator(
+                Criteria.where("nextDispatch").lte(dueBefore),
+                Criteria.where("dispatchState.snoozedUntil").lte(dueBefore)));
+        if (partitions != null) {
+            filters.add(new Criteria().orOperator(byPartition(partitionCount, partitions)));
+        }
+        Query query = Query.query(Criteria.where("status").is(status)
+                .andOperator(filters.toArray(Criteria[]::new)));
+        query.fields().include("_id", "nextDispatch", "status", "dispatchState");
+        return mongoTemplate.find(query, Reminder.class);
+    }
+
+    // The hash comes from the UUID, so it can't be computed server side; the updates still go out in one round trip.
+    @Override
+    public int assignMissingDispatchHashes(ReminderStatus status) {
+        Query query = Query.query(Criteria.where("status").is(status).and("dispatchHash").exists(false));
+        query.fields().include("_id");
+        List<Reminder> missing = mongoTemplate.find(query, Reminder.class);
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reminder.class);
+        missing.forEach(reminder -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(reminder.getId()).and("dispatchHash").exists(false)),
+                Update.update("dispatchHash", Reminder.dispatchHashOf(reminder.getId()))));
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public void updateDispatchState(UUID reminderId, ReminderDispatchState state) {
+        mongoTemplate.updateFirst(supersedableBy(reminderId, state), Update.update("dispatchState", state), Reminder.class);
+    }
+
+    @Override
+    public void bulkWrite(ReminderDispatchWrites writes) {
+        if (writes.dispatchStates().isEmpty() && writes.scheduleUpdates().isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reminder.class);
+        writes.dispatchStates().forEach((reminderId, state) ->
+                bulk.updateOne(supersedableBy(reminderId, state), Update.update("dispatchState", state)));
+        writes.scheduleUpdates().forEach((reminderId, fields) -> {
+            Update update = new Update();
+            fields.forEach(update::set);
+            bulk.updateOne(Query.query(Criteria.where("_id").is(reminderId)), update);
+        });
+        bulk.execute();
+    }
+
+    private Criteria[] byPartition(int partitionCount, Collection<Integer> partitions) {
+        return partitions.stream()
+                .map(partition -> Criteria.where("dispatchHash").mod(partitionCount, partition))
+                .toArray(Criteria[]::new);
+    }
+
+    private Query supersedableBy(UUID reminderId, ReminderDispatchState state) {
+        List<Criteria> supersedable = new ArrayList<>();
+        supersedable.add(Criteria.where("dispatchState").is(null));
+        supersedable.add(Criteria.where("dispatchState.sentAt").is(null));
+        if (state.getStatus() == ReminderEventStatus.PENDING) {
+            // a reply can reach the event before the state of the send that created it is written
+            supersedable.add(Criteria.where("dispatchState.eventId").is(state.getEventId())
+                    .and("dispatchState.status").is(ReminderEventStatus.PENDING));
+            if (state.getSentAt() != null) {
+                supersedable.add(Criteria.where("dispatchState.sentAt").lt(state.getSentAt()));
+            }
+        } else {
+            supersedable.add(Criteria.where("dispatchState.eventId").is(state.getEventId()));
+            if (state.getSentAt() != null) {
+                supersedable.add(Criteria.where("dispatchState.sentAt").lte(state.getSentAt()));
+            }
+        }
+        return Query.query(Criteria.where("_id").is(reminderId)
+                .orOperator(supersedable.toArray(Criteria[]::new)));
+    }
+}
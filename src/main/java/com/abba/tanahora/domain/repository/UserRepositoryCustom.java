@@ -0,0 +1,9 @@
+package com.abba.tanahora.domain.repository;
+
+import java.time.OffsetDateTime;
+
+public interface UserRepositoryCustom {
+
+    void updateLastInboundAt(String whatsappId, OffsetDateTime receivedAt);
+
+}
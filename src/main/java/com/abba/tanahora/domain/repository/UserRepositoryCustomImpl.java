@@ -0,0 +1,27 @@
+package com.abba.tanahora.domain.repository;
+
+import com.abba.tanahora.domain.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.OffsetDateTime;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    // Only moves forward, so messages persisted out of order never shrink the window.
+    @Override
+    public void updateLastInboundAt(String whatsappId, OffsetDateTime receivedAt) {
+        Criteria notNewer = new Criteria().orOperator(
+                Criteria.where("lastInboundAt").isNull(),
+                Criteria.where("lastInboundAt").lt(receivedAt));
+        mongoTemplate.updateFirst(Query.query(Criteria.where("whatsappId").is(whatsappId).andOperator(notNewer)),
+                Update.update("lastInboundAt", receivedAt),
+                User.class);
+    }
+}
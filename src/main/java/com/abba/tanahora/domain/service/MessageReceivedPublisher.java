@@ -0,0 +1,9 @@
+package com.abba.tanahora.domain.service;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+
+public interface MessageReceivedPublisher {
+
+    void publish(MessageReceived messageReceived);
+
+}
@@ -1,15 +1,27 @@
 package com.abba.tanahora.domain.service;
 
 import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.model.MessageReceivedStatus;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface MessageReceivedService {
 
     void markAsProcessed(String id);
-    void markAsError(String id);
+    MessageReceivedStatus registerFailure(String id, Exception error);
 
-    List<MessageReceived> getPendingMessages();
+    List<MessageReceived> claimPendingMessages(OffsetDateTime receivedBefore);
 
-    void receiveMessage(MessageReceived messageReceived);
+    List<MessageReceived> claimDueRetries();
+
+    Optional<MessageReceived> claimMessage(String id);
+
+    long redriveFailedMessages(Collection<String> ids);
+
+    boolean receiveMessage(MessageReceived messageReceived);
+
+    List<MessageReceived> receiveMessages(List<MessageReceived> messages);
 }
@@ -0,0 +1,13 @@
+package com.abba.tanahora.domain.service;
+
+import com.abba.tanahora.domain.model.Reminder;
+
+public interface ReminderDispatchScheduler {
+
+    void schedule(Reminder reminder);
+
+    void unschedule(Reminder reminder);
+
+    void scheduleDeadline(Reminder reminder);
+
+}
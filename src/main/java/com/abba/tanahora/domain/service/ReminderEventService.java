@@ -3,8 +3,10 @@ package com.abba.tanahora.domain.service;
 import com.abba.tanahora.domain.model.Reminder;
 import com.abba.tanahora.domain.model.ReminderEvent;
 import com.abba.tanahora.domain.model.ReminderEventStatus;
+import com.abba.tanahora.domain.repository.ReminderDispatchWrites;
 
 import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -13,6 +15,8 @@ public interface ReminderEventService {
 
     void registerDispatch(Reminder reminder, String whatsappMessageId);
 
+    void registerMissed(Reminder reminder, OffsetDateTime occurrence, ReminderDispatchWrites writes);
+
     Optional<ReminderEvent> findPendingByReminder(Reminder reminder);
 
     Optional<ReminderEvent> findLatestByReminderAndStatus(Reminder reminder, ReminderEventStatus status);
@@ -21,6 +25,12 @@ public interface ReminderEventService {
 
     void updateDispatch(ReminderEvent event, String whatsappMessageId);
 
+    void markCurrentAsMissed(Reminder reminder, ReminderDispatchWrites writes);
+
+    void redispatchCurrent(Reminder reminder, String whatsappMessageId);
+
+    void flush(ReminderDispatchWrites writes);
+
     Optional<ReminderEvent> updateStatusFromResponse(String replyToMessageId, String responseText, String userId);
 
     Optional<ReminderEvent> snoozeFromResponse(String replyToMessageId, String userId, Duration snoozeDuration, int maxSnoozes);
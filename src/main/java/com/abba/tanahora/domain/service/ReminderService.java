@@ -4,20 +4,40 @@ import com.abba.tanahora.domain.model.Medication;
 import com.abba.tanahora.domain.model.Patient;
 import com.abba.tanahora.domain.model.Reminder;
 import com.abba.tanahora.domain.model.User;
+import com.abba.tanahora.domain.repository.ReminderDispatchWrites;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface ReminderService {
 
     Reminder scheduleMedication(User user, Patient patient, Medication med, String rrule);
 
-    List<Reminder> getNextRemindersToNotify();
+    List<Reminder> getByIds(Collection<UUID> ids);
+
+    List<Reminder> getActiveDispatchSchedule();
+
+    List<Reminder> getActiveDispatchSchedule(int partitionCount, Collection<Integer> partitions);
+
+    List<Reminder> getActiveDispatchDueBefore(OffsetDateTime dueBefore);
+
+    List<Reminder> getActiveDispatchDueBefore(OffsetDateTime dueBefore, int partitionCount, Collection<Integer> partitions);
+
+    int assignMissingDispatchHashes();
 
     List<Reminder> getByUser(User user);
+
+    Optional<Reminder> getNextByUser(User user);
+
     void cancelReminder(Reminder reminder);
 
     void updateReminderNextDispatch(Reminder reminder);
 
+    void updateReminderNextDispatch(Reminder reminder, ReminderDispatchWrites writes);
+
+    void rescheduleQuietly(Reminder reminder, ReminderDispatchWrites writes);
+
 }
@@ -0,0 +1,38 @@
+package com.abba.tanahora.domain.utils;
+
+import org.dmfs.rfc5545.recur.InvalidRecurrenceRuleException;
+import org.dmfs.rfc5545.recur.RecurrenceRule;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class RecurrenceRules {
+
+    private static final int MAX_CACHED_RULES = 256;
+
+    // Parsed rules are shared between reminders, so callers must never mutate them.
+    private static final Map<String, RecurrenceRule> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RecurrenceRule> eldest) {
+            return size() > MAX_CACHED_RULES;
+        }
+    };
+
+    private RecurrenceRules() {
+    }
+
+    public static RecurrenceRule parse(String rrule) throws InvalidRecurrenceRuleException {
+        synchronized (CACHE) {
+            RecurrenceRule cached = CACHE.get(rrule);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        RecurrenceRule rule = new RecurrenceRule(rrule);
+        synchronized (CACHE) {
+            CACHE.put(rrule, rule);
+        }
+        return rule;
+    }
+
+}
@@ -11,6 +11,7 @@ import com.abba.tanahora.domain.model.User;
 import com.abba.tanahora.domain.repository.ReminderEventRepository;
 import com.abba.tanahora.domain.repository.ReminderRepository;
 import com.abba.tanahora.domain.repository.UserRepository;
+import com.abba.tanahora.domain.service.MessageReceivedService;
 import com.abba.tanahora.domain.service.NotificationService;
 import com.abba.tanahora.domain.service.ReminderEventService;
 import com.abba.tanahora.domain.service.ReminderService;
@@ -45,6 +46,7 @@ public class BackofficeController {
     private final UserRepository userRepository;
     private final ReminderRepository reminderRepository;
     private final ReminderEventRepository reminderEventRepository;
+    private final MessageReceivedService messageReceivedService;
 
     public BackofficeController(UserService userService,
                                 ReminderService reminderService,
@@ -52,7 +54,8 @@ public class BackofficeController {
                                 ReminderEventService reminderEventService,
                                 UserRepository userRepository,
                                 ReminderRepository reminderRepository,
-                                ReminderEventRepository reminderEventRepository) {
+                                ReminderEventRepository reminderEventRepository,
+                                MessageReceivedService messageReceivedService) {
         this.userService = userService;
         this.reminderService = reminderService;
         this.notificationService = notificationService;
@@ -60,6 +63,7 @@ public class BackofficeController {
         this.userRepository = userRepository;
         this.reminderRepository = reminderRepository;
         this.reminderEventRepository = reminderEventRepository;
+        this.messageReceivedService = messageReceivedService;
     }
 
     @PostMapping("/users/{whatsappId}/messages")
@@ -176,9 +180,7 @@ public class BackofficeController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "user not found"));
         }
 
-        Optional<Reminder> nextReminder = reminderService.getByUser(user).stream()
-                .filter(reminder -> reminder.getNextDispatch() != null)
-                .min(Comparator.comparing(Reminder::getNextDispatch));
+        Optional<Reminder> nextReminder = reminderService.getNextByUser(user);
 
         if (nextReminder.isEmpty()) {
             return ResponseEntity.ok(Map.of(
@@ -263,6 +265,19 @@ public class BackofficeController {
         ));
     }
 
+    @PostMapping("/messages/dead-letter/redrive")
+    @Operation(
+            summary = "Reprocessar mensagens recebidas com falha",
+            description = "Devolve para a fila de processamento as mensagens em DEAD_LETTER ou ERROR. " +
+                    "Sem ids informados, reprocessa todas."
+    )
+    @ApiResponse(responseCode = "200", description = "Mensagens devolvidas para processamento")
+    public ResponseEntity<BackofficeRedriveResponse> redriveFailedMessages(
+            @RequestBody(required = false) BackofficeRedriveRequest request) {
+        List<String> ids = request == null ? null : request.ids();
+        return ResponseEntity.ok(new BackofficeRedriveResponse(messageReceivedService.redriveFailedMessages(ids)));
+    }
+
     @Schema(name = "BackofficeSendMessageRequest")
     public record BackofficeSendMessageRequest(
             @Schema(description = "Texto da mensagem a ser enviada (quando nao usar template)", example = "Mensagem do backoffice")
@@ -325,6 +340,18 @@ public class BackofficeController {
             long activeReminders) {
     }
 
+    @Schema(name = "BackofficeRedriveRequest")
+    public record BackofficeRedriveRequest(
+            @Schema(description = "IDs das mensagens a reprocessar (opcional, vazio reprocessa todas)", example = "[\"wamid.HBgM\"]")
+            List<String> ids) {
+    }
+
+    @Schema(name = "BackofficeRedriveResponse")
+    public record BackofficeRedriveResponse(
+            @Schema(description = "Quantidade de mensagens devolvidas para processamento", example = "3")
+            long redriven) {
+    }
+
     private String sendBackofficeMessage(User user, BackofficeSendMessageRequest request) {
         if (request.template() != null) {
             TemplateWhatsAppMessage.Builder builder = TemplateWhatsAppMessage.builder()
@@ -0,0 +1,15 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.classification.cache")
+@Data
+public class ClassificationCacheProperties {
+
+    private long maximumSize = 10000;
+    private long localTtlMs = 21600000;
+    private long sharedTtlMs = 604800000;
+}
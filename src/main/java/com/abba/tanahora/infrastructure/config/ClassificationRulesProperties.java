@@ -0,0 +1,38 @@
+package com.abba.tanahora.infrastructure.config;
+
+import com.abba.tanahora.application.dto.MessageReceivedType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.classification.rules")
+@Data
+public class ClassificationRulesProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, MessageReceivedType> buttons = Map.of(
+            "tomei_btn", MessageReceivedType.REMINDER_RESPONSE_TAKEN,
+            "adiar_btn", MessageReceivedType.REMINDER_RESPONSE_SNOOZED,
+            "pular_btn", MessageReceivedType.REMINDER_RESPONSE_SKIPPED);
+
+    // Whole-message phrases, compared after lower-casing and stripping accents and punctuation.
+    private Map<MessageReceivedType, List<String>> phrases = new EnumMap<>(Map.of(
+            MessageReceivedType.REMINDER_RESPONSE_TAKEN, List.of(
+                    "tomei", "ja tomei", "tomei sim", "tomado", "tomei ja", "ok tomei"),
+            MessageReceivedType.REMINDER_RESPONSE_SKIPPED, List.of(
+                    "pular", "pulei", "esqueci", "nao tomei", "nao vou tomar", "esqueci de tomar"),
+            MessageReceivedType.REMINDER_RESPONSE_SNOOZED, List.of(
+                    "adiar", "adiar por uma hora", "depois", "mais tarde", "daqui a pouco"),
+            MessageReceivedType.WELCOME, List.of(
+                    "oi", "ola", "oie", "bom dia", "boa tarde", "boa noite", "oi tudo bem", "ola tudo bem"),
+            MessageReceivedType.CHECK_NEXT_DISPATCH, List.of(
+                    "proximo lembrete", "qual o proximo lembrete", "qual meu proximo lembrete"),
+            MessageReceivedType.PLAN_INFO, List.of(
+                    "meu plano", "qual meu plano", "qual o meu plano")));
+}
@@ -0,0 +1,17 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.inbound.batch")
+@Data
+public class InboundBatchProperties {
+
+    private int maxSize = 100;
+    private long lingerMs = 20;
+    private int queueCapacity = 1000;
+    private long ackTimeoutMs = 2000;
+    private long terminationTimeoutMs = 10000;
+}
@@ -0,0 +1,15 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.inbound.claims")
+@Data
+public class InboundClaimProperties {
+
+    private int pageSize = 50;
+    private long leaseMs = 300000;
+    private String owner;
+}
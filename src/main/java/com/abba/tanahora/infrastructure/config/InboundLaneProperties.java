@@ -0,0 +1,15 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.inbound.lanes")
+@Data
+public class InboundLaneProperties {
+
+    private int count = 8;
+    private int queueDepth = 100;
+    private long terminationTimeoutMs = 30000;
+}
@@ -0,0 +1,91 @@
+package com.abba.tanahora.infrastructure.config;
+
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.autoconfigure.amqp.DirectRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Inbound messages are spread over queueCount queues by the sender's hash, each with a single consumer, so the
+// messages of one user are handled one at a time and in order while different users proceed in parallel.
+@Configuration
+@ConditionalOnProperty(prefix = "tanahora.inbound.rabbit", name = "enabled", havingValue = "true")
+public class InboundRabbitConfig {
+
+    public static final String CONTAINER_FACTORY = "inboundMessageContainerFactory";
+    public static final String QUEUE_NAMES = "inboundQueueNames";
+
+    public static int partitionOf(String whatsappId, int queueCount) {
+        return whatsappId == null ? 0 : (whatsappId.hashCode() & Integer.MAX_VALUE) % queueCount;
+    }
+
+    public static String routingKey(InboundRabbitProperties properties, int partition) {
+        return properties.getRoutingKey() + "." + partition;
+    }
+
+    private static String queueName(InboundRabbitProperties properties, int partition) {
+        return properties.getQueue() + "." + partition;
+    }
+
+    @Bean
+    DirectExchange inboundExchange(InboundRabbitProperties properties) {
+        return new DirectExchange(properties.getExchange());
+    }
+
+    @Bean
+    DirectExchange inboundDeadLetterExchange(InboundRabbitProperties properties) {
+        return new DirectExchange(properties.getDeadLetterExchange());
+    }
+
+    @Bean(QUEUE_NAMES)
+    String[] inboundQueueNames(InboundRabbitProperties properties) {
+        return IntStream.range(0, properties.getQueueCount())
+                .mapToObj(partition -> queueName(properties, partition))
+                .toArray(String[]::new);
+    }
+
+    @Bean
+    Declarables inboundQueues(DirectExchange inboundExchange, InboundRabbitProperties properties) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int partition = 0; partition < properties.getQueueCount(); partition++) {
+            Queue queue = QueueBuilder.durable(queueName(properties, partition))
+                    .deadLetterExchange(properties.getDeadLetterExchange())
+                    .deadLetterRoutingKey(properties.getDeadLetterQueue())
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(inboundExchange).with(routingKey(properties, partition)));
+        }
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    Declarables inboundDeadLetterQueue(DirectExchange inboundDeadLetterExchange, InboundRabbitProperties properties) {
+        Queue queue = QueueBuilder.durable(properties.getDeadLetterQueue()).build();
+        return new Declarables(queue, BindingBuilder.bind(queue).to(inboundDeadLetterExchange).with(properties.getDeadLetterQueue()));
+    }
+
+    // One consumer per queue keeps each partition ordered. Rejected messages are not requeued, so a failing
+    // message goes to the dead-letter queue instead of looping.
+    @Bean(CONTAINER_FACTORY)
+    DirectRabbitListenerContainerFactory inboundMessageContainerFactory(DirectRabbitListenerContainerFactoryConfigurer configurer,
+                                                                        ConnectionFactory connectionFactory,
+                                                                        InboundRabbitProperties properties) {
+        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setPrefetchCount(properties.getPrefetch());
+        factory.setConsumersPerQueue(1);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+}
@@ -0,0 +1,22 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.inbound.rabbit")
+@Data
+public class InboundRabbitProperties {
+
+    private boolean enabled = false;
+    private String exchange = "tanahora.inbound";
+    private String queue = "tanahora.inbound.messages";
+    private String routingKey = "message.received";
+    private String deadLetterExchange = "tanahora.inbound.dlx";
+    private String deadLetterQueue = "tanahora.inbound.messages.dlq";
+    private int prefetch = 10;
+    private int queueCount = 4;
+    private long confirmTimeoutMs = 5000;
+    private long sweepGraceMs = 120000;
+}
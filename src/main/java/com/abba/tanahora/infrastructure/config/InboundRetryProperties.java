@@ -0,0 +1,17 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.inbound.retries")
+@Data
+public class InboundRetryProperties {
+
+    private int maxAttempts = 5;
+    private long initialBackoffMs = 30000;
+    private long maxBackoffMs = 1800000;
+    private double multiplier = 2.0;
+    private int retriesPerRun = 20;
+}
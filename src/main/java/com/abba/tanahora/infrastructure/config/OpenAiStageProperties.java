@@ -0,0 +1,26 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Per-stage overrides of spring.ai.openai.chat.options; a blank model keeps the default chat model.
+@Component
+@ConfigurationProperties(prefix = "tanahora.openai")
+@Data
+public class OpenAiStageProperties {
+
+    private Stage intent = new Stage(null, 30);
+    private Stage extraction = new Stage(null, 500);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stage {
+
+        private String model;
+        private Integer maxTokens;
+    }
+}
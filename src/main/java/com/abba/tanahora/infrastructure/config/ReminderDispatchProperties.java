@@ -0,0 +1,20 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.scheduler.dispatch")
+@Data
+public class ReminderDispatchProperties {
+
+    private int sendConcurrency = 16;
+    private long sendRetryDelayMs = 60000;
+    private long spreadWindowMs = 90000;
+    private int sendBudgetPerTick = 80;
+    private long catchUpLagMs = 120000;
+    private double catchUpShare = 0.25;
+    private long staleAfterMs = 7200000;
+    private long pickupDelayMs = 15000;
+}
@@ -0,0 +1,13 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.scheduler.executors")
+@Data
+public class SchedulerExecutorProperties {
+
+    private long terminationTimeoutMs = 30000;
+}
@@ -0,0 +1,17 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "tanahora.scheduler.partitions")
+@Data
+public class SchedulerPartitionProperties {
+
+    private boolean enabled;
+    private int count = 16;
+    private long leaseMs = 30000;
+    private long renewDelayMs = 10000;
+    private String nodeId;
+}
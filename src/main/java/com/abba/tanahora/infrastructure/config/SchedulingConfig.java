@@ -0,0 +1,49 @@
+package com.abba.tanahora.infrastructure.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+
+// One scheduler per job group, so a slow inbound message never holds back reminder dispatch
+// or lease renewal. Every group gets a single scheduler thread: fixed-delay jobs run on it one at a
+// time, only cron jobs are handed off to their own thread. The "taskScheduler" bean stays the default
+// for unqualified @Scheduled methods and carries the slow maintenance work.
+@Configuration
+@RequiredArgsConstructor
+public class SchedulingConfig {
+
+    public static final String REMINDER_DISPATCH_SCHEDULER = "reminderDispatchScheduler";
+    public static final String INBOUND_MESSAGE_SCHEDULER = "inboundMessageScheduler";
+    public static final String SCHEDULER_LEASE_SCHEDULER = "schedulerLeaseScheduler";
+    public static final String DEFAULT_SCHEDULER = "taskScheduler";
+
+    private final SchedulerExecutorProperties properties;
+
+    @Bean(name = REMINDER_DISPATCH_SCHEDULER)
+    public SimpleAsyncTaskScheduler reminderDispatchScheduler() {
+        return scheduler("reminder-dispatch-");
+    }
+
+    @Bean(name = INBOUND_MESSAGE_SCHEDULER)
+    public SimpleAsyncTaskScheduler inboundMessageScheduler() {
+        return scheduler("inbound-message-");
+    }
+
+    @Bean(name = SCHEDULER_LEASE_SCHEDULER)
+    public SimpleAsyncTaskScheduler schedulerLeaseScheduler() {
+        return scheduler("scheduler-lease-");
+    }
+
+    @Bean(name = DEFAULT_SCHEDULER)
+    public SimpleAsyncTaskScheduler taskScheduler() {
+        return scheduler("scheduler-");
+    }
+
+    private SimpleAsyncTaskScheduler scheduler(String threadNamePrefix) {
+        SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setTaskTerminationTimeout(properties.getTerminationTimeoutMs());
+        return scheduler;
+    }
+}
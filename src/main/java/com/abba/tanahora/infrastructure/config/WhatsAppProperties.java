@@ -14,4 +14,6 @@ public class WhatsAppProperties {
     private String template;
     private String verifyToken;
     private String accessToken;
+    private int messagesPerSecond = 80;
+    private int burst;
 }
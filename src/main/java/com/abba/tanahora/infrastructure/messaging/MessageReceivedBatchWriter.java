@@ -0,0 +1,132 @@
+package com.abba.tanahora.infrastructure.messaging;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.service.MessageReceivedService;
+import com.abba.tanahora.infrastructure.config.InboundBatchProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Coalesces webhook messages from many requests into micro-batches, each persisted with one insertMany.
+// A batch is written when it reaches max-size or linger-ms after its first message, whichever comes first.
+// Every message gets a future that completes once its batch is stored (true when new, false when it was a
+// redelivery) or fails with the batch, so callers decide how long to wait for durability.
+// A full queue blocks the submitter, which slows the webhook down instead of dropping messages.
+@Component
+@Slf4j
+public class MessageReceivedBatchWriter {
+
+    private static final long IDLE_POLL_MS = 200;
+
+    private final MessageReceivedService messageReceivedService;
+    private final InboundBatchProperties properties;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Thread writer;
+    // Submitters hand off under the read lock and shutdown stops under the write lock, so no message can be
+    // queued after shutdown has decided the queue is closed.
+    private final ReadWriteLock handoff = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    public MessageReceivedBatchWriter(MessageReceivedService messageReceivedService, InboundBatchProperties properties) {
+        this.messageReceivedService = messageReceivedService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.writer = Thread.ofVirtual().name("inbound-batch-writer").start(this::run);
+    }
+
+    public List<CompletableFuture<Boolean>> submit(List<MessageReceived> messages) throws InterruptedException {
+        List<CompletableFuture<Boolean>> stored = new ArrayList<>(messages.size());
+        List<PendingWrite> late = new ArrayList<>();
+        handoff.readLock().lockInterruptibly();
+        try {
+            for (MessageReceived message : messages) {
+                PendingWrite pending = new PendingWrite(message, new CompletableFuture<>());
+                stored.add(pending.stored());
+                if (running) {
+                    queue.put(pending);
+                } else {
+                    late.add(pending);
+                }
+            }
+        } finally {
+            handoff.readLock().unlock();
+        }
+        // after shutdown started nobody drains the queue, so the caller writes its own messages
+        write(late);
+        return stored;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        handoff.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            handoff.writeLock().unlock();
+        }
+        writer.join(properties.getTerminationTimeoutMs());
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        write(remaining);
+    }
+
+    private void run() {
+        int maxSize = Math.max(1, properties.getMaxSize());
+        List<PendingWrite> batch = new ArrayList<>(maxSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getLingerMs());
+                while (batch.size() < maxSize) {
+                    PendingWrite next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                write(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<MessageReceived> messages = batch.stream().map(PendingWrite::message).toList();
+        try {
+            Set<MessageReceived> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+            inserted.addAll(messageReceivedService.receiveMessages(messages));
+            batch.forEach(pending -> pending.stored().complete(inserted.contains(pending.message())));
+            log.debug("Persisted inbound batch size={} inserted={}", batch.size(), inserted.size());
+        } catch (Exception e) {
+            log.error("Failed to persist inbound batch ids={}", messages.stream().map(MessageReceived::getId).toList(), e);
+            batch.forEach(pending -> pending.stored().completeExceptionally(e));
+        }
+    }
+
+    private record PendingWrite(MessageReceived message, CompletableFuture<Boolean> stored) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.abba.tanahora.infrastructure.messaging;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.model.MessageReceivedStatus;
+import com.abba.tanahora.domain.service.MessageReceivedHandler;
+import com.abba.tanahora.domain.service.MessageReceivedService;
+import com.abba.tanahora.infrastructure.config.InboundLaneProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Messages of one user always land on the same single-threaded lane, so they are handled in arrival order
+// (pending-action flows depend on it), while different users run in parallel. A full lane blocks the
+// submitter instead of growing without bound.
+@Component
+@Slf4j
+public class MessageReceivedLanes {
+
+    private final MessageReceivedService messageReceivedService;
+    private final MessageReceivedHandler messageReceivedHandler;
+    private final InboundLaneProperties properties;
+    private final ExecutorService[] lanes;
+    private final Semaphore[] capacity;
+
+    public MessageReceivedLanes(MessageReceivedService messageReceivedService,
+                                MessageReceivedHandler messageReceivedHandler,
+                                InboundLaneProperties properties) {
+        this.messageReceivedService = messageReceivedService;
+        this.messageReceivedHandler = messageReceivedHandler;
+        this.properties = properties;
+        int count = Math.max(1, properties.getCount());
+        this.lanes = new ExecutorService[count];
+        this.capacity = new Semaphore[count];
+        for (int lane = 0; lane < count; lane++) {
+            lanes[lane] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    Thread.ofVirtual().name("inbound-lane-" + lane + "-", 0).factory());
+            capacity[lane] = new Semaphore(Math.max(1, properties.getQueueDepth()));
+        }
+    }
+
+    // Completes with the status the message ended in: PROCESSED, PENDING when a retry was scheduled, or DEAD_LETTER.
+    public CompletableFuture<MessageReceivedStatus> submit(MessageReceived message) {
+        int lane = laneOf(message.getWhatsappId());
+        capacity[lane].acquireUninterruptibly();
+        try {
+            return CompletableFuture.supplyAsync(() -> process(message), lanes[lane])
+                    .whenComplete((processed, error) -> capacity[lane].release());
+        } catch (RuntimeException e) {
+            capacity[lane].release();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            if (!lane.awaitTermination(properties.getTerminationTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                lane.shutdownNow();
+            }
+        }
+    }
+
+    private int laneOf(String whatsappId) {
+        return whatsappId == null ? 0 : Math.floorMod(whatsappId.hashCode(), lanes.length);
+    }
+
+    private MessageReceivedStatus process(MessageReceived message) {
+        try {
+            log.debug("Processing message id={} whatsappId={} attempt={}", message.getId(), message.getWhatsappId(), message.getAttempts() + 1);
+            messageReceivedHandler.handle(message);
+            messageReceivedService.markAsProcessed(message.getId());
+            return MessageReceivedStatus.PROCESSED;
+        } catch (Exception e) {
+            MessageReceivedStatus status = messageReceivedService.registerFailure(message.getId(), e);
+            log.error("Failed to process message id={} whatsappId={} attempt={} status={}",
+                    message.getId(), message.getWhatsappId(), message.getAttempts() + 1, status, e);
+            return status;
+        }
+    }
+}
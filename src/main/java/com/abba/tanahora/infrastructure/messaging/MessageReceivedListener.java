@@ -0,0 +1,37 @@
+package com.abba.tanahora.infrastructure.messaging;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.model.MessageReceivedStatus;
+import com.abba.tanahora.domain.service.MessageReceivedService;
+import com.abba.tanahora.infrastructure.config.InboundRabbitConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "tanahora.inbound.rabbit", name = "enabled", havingValue = "true")
+public class MessageReceivedListener {
+
+    private final MessageReceivedService messageReceivedService;
+    private final MessageReceivedLanes messageReceivedLanes;
+
+    @RabbitListener(queues = "#{@" + InboundRabbitConfig.QUEUE_NAMES + "}", containerFactory = InboundRabbitConfig.CONTAINER_FACTORY)
+    public void onMessageReceived(String messageId) {
+        MessageReceived message = messageReceivedService.claimMessage(messageId).orElse(null);
+        if (message == null) {
+            log.debug("Inbound message skipped: id={} reason=ALREADY_CLAIMED_OR_MISSING", messageId);
+            return;
+        }
+
+        // Waiting for the lane ties the ack to the outcome. A failure with attempts left is retried by the sweeper
+        // after its backoff; only a message that exhausted its attempts is rejected to the dead-letter queue.
+        if (messageReceivedLanes.submit(message).join() == MessageReceivedStatus.DEAD_LETTER) {
+            throw new AmqpRejectAndDontRequeueException("Message dead-lettered after retries: " + messageId);
+        }
+    }
+}
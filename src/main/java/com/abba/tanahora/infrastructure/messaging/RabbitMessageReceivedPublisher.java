@@ -0,0 +1,49 @@
+package com.abba.tanahora.infrastructure.messaging;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.service.MessageReceivedPublisher;
+import com.abba.tanahora.infrastructure.config.InboundRabbitConfig;
+import com.abba.tanahora.infrastructure.config.InboundRabbitProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "tanahora.inbound.rabbit", name = "enabled", havingValue = "true")
+public class RabbitMessageReceivedPublisher implements MessageReceivedPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final InboundRabbitProperties properties;
+
+    // The message is already stored as PENDING, so a failed publish only delays it until the sweeper runs.
+    // Confirms are only observed, never awaited: this runs on the inbound batch writer, ahead of the webhook acks.
+    @Override
+    public void publish(MessageReceived messageReceived) {
+        String id = messageReceived.getId();
+        int partition = InboundRabbitConfig.partitionOf(messageReceived.getWhatsappId(), properties.getQueueCount());
+        CorrelationData correlation = new CorrelationData(id);
+        try {
+            rabbitTemplate.convertAndSend(properties.getExchange(), InboundRabbitConfig.routingKey(properties, partition), id, correlation);
+        } catch (AmqpException e) {
+            log.warn("Inbound message publish failed: id={}", id, e);
+            return;
+        }
+        correlation.getFuture()
+                .orTimeout(properties.getConfirmTimeoutMs(), TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, error) -> {
+                    if (error != null) {
+                        log.warn("Inbound message publish not confirmed: id={} reason={}", id, error.toString());
+                    } else if (!confirm.isAck()) {
+                        log.warn("Inbound message publish not confirmed: id={} reason={}", id, confirm.getReason());
+                    }
+                });
+    }
+}
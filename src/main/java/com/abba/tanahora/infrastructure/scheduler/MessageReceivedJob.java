@@ -1,8 +1,11 @@
 package com.abba.tanahora.infrastructure.scheduler;
 
 import com.abba.tanahora.domain.model.MessageReceived;
-import com.abba.tanahora.domain.service.MessageReceivedHandler;
 import com.abba.tanahora.domain.service.MessageReceivedService;
+import com.abba.tanahora.infrastructure.config.InboundClaimProperties;
+import com.abba.tanahora.infrastructure.config.InboundRabbitProperties;
+import com.abba.tanahora.infrastructure.config.SchedulingConfig;
+import com.abba.tanahora.infrastructure.messaging.MessageReceivedLanes;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,7 +13,10 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 @ConditionalOnProperty(prefix = "tictacmed.scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
@@ -20,20 +26,39 @@ public class MessageReceivedJob {
     private static final Logger log = LoggerFactory.getLogger(MessageReceivedJob.class);
 
     private final MessageReceivedService messageReceivedService;
-    private final MessageReceivedHandler messageReceivedHandler;
+    private final MessageReceivedLanes messageReceivedLanes;
+    private final InboundRabbitProperties inboundRabbitProperties;
+    private final InboundClaimProperties inboundClaimProperties;
 
-    @Scheduled(fixedDelayString = "${tanahora.scheduler.fixed-delay-ms:60000}")
+    @Scheduled(fixedDelayString = "${tanahora.scheduler.fixed-delay-ms:60000}",
+            scheduler = SchedulingConfig.INBOUND_MESSAGE_SCHEDULER)
     public void processPendingMessages() {
-        List<MessageReceived> pending = messageReceivedService.getPendingMessages();
-        for (MessageReceived message : pending) {
-            try {
-                log.debug("Processing message id={} whatsappId={}", message.getId(), message.getWhatsappId());
-                messageReceivedHandler.handle(message);
-                messageReceivedService.markAsProcessed(message.getId());
-            } catch (Exception e) {
-                log.error("Failed to process message id={} whatsappId={}", message.getId(), message.getWhatsappId(), e);
-                messageReceivedService.markAsError(message.getId());
-            }
+        // each page finishes before the next is claimed, so a user's messages keep their order across pages
+        List<MessageReceived> page;
+        do {
+            page = messageReceivedService.claimPendingMessages(receivedBefore());
+            CompletableFuture<?>[] submitted = page.stream()
+                    .map(messageReceivedLanes::submit)
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(submitted).join();
+        } while (page.size() == inboundClaimProperties.getPageSize());
+
+        List<MessageReceived> retries = messageReceivedService.claimDueRetries();
+        if (!retries.isEmpty()) {
+            log.info("Retrying {} failed inbound messages", retries.size());
+            CompletableFuture.allOf(retries.stream()
+                            .map(messageReceivedLanes::submit)
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+        }
+    }
+
+    // With the queue enabled this job is only a sweeper for messages whose publish or delivery got lost,
+    // so it leaves recent ones to the listener.
+    private OffsetDateTime receivedBefore() {
+        if (!inboundRabbitProperties.isEnabled()) {
+            return OffsetDateTime.now();
         }
+        return OffsetDateTime.now().minus(Duration.ofMillis(inboundRabbitProperties.getSweepGraceMs()));
     }
 }
@@ -0,0 +1,460 @@
+package com.abba.tanahora.infrastructure.scheduler;
+
+import com.abba.tanahora.application.notification.InteractiveWhatsAppMessage;
+import com.abba.tanahora.application.notification.TemplateWhatsAppMessage;
+import com.abba.tanahora.application.notification.WhatsAppTemplates;
+import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.model.Reminder;
+import com.abba.tanahora.domain.model.ReminderDispatchState;
+import com.abba.tanahora.domain.model.ReminderEvent;
+import com.abba.tanahora.domain.model.ReminderEventStatus;
+import com.abba.tanahora.domain.model.User;
+import com.abba.tanahora.domain.repository.MessageReceivedRepository;
+import com.abba.tanahora.domain.repository.ReminderDispatchWrites;
+import com.abba.tanahora.domain.repository.UserRepository;
+import com.abba.tanahora.domain.service.NotificationService;
+import com.abba.tanahora.domain.service.ReminderEventService;
+import com.abba.tanahora.domain.service.ReminderService;
+import com.abba.tanahora.infrastructure.config.ReminderDispatchProperties;
+import com.abba.tanahora.infrastructure.config.SchedulingConfig;
+import com.whatsapp.api.domain.messages.Button;
+import com.whatsapp.api.domain.messages.Reply;
+import com.whatsapp.api.domain.messages.type.ButtonType;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static com.abba.tanahora.domain.utils.Constants.BRAZIL_ZONEID;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "tictacmed.scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ReminderDispatchJob {
+
+
+    private final ReminderService reminderService;
+    private final ReminderEventService reminderEventService;
+    private final NotificationService notificationService;
+    private final MessageReceivedRepository messageReceivedRepository;
+    private final UserRepository userRepository;
+    private final ReminderDispatchWheel reminderDispatchWheel;
+    private final SchedulerPartitionLeaseManager partitionLeaseManager;
+    private final ReminderDispatchProperties dispatchProperties;
+    private final ReminderDispatchPlanner dispatchPlanner;
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private boolean catchingUp;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadSchedule() {
+        if (partitionLeaseManager.isEnabled()) {
+            int assigned = reminderService.assignMissingDispatchHashes();
+            if (assigned > 0) {
+                log.info("Reminder dispatch hashes assigned: reminders={}", assigned);
+            }
+        }
+        List<Reminder> schedule = activeSchedule(partitionLeaseManager.ownedPartitions());
+        schedule.forEach(reminderDispatchWheel::schedule);
+        log.info("Reminder dispatch schedule loaded: reminders={} armed={}", schedule.size(), reminderDispatchWheel.size());
+    }
+
+    @Scheduled(fixedDelayString = "${tanahora.scheduler.partitions.renew-delay-ms:10000}",
+            scheduler = SchedulingConfig.SCHEDULER_LEASE_SCHEDULER)
+    public void renewPartitionLeases() {
+        Set<Integer> acquired = partitionLeaseManager.renew();
+        if (!acquired.isEmpty()) {
+            loadPartitions(acquired);
+        }
+    }
+
+    // Runs on the maintenance scheduler so the full reload never holds up the dispatch tick; only arming
+    // the wheel is serialized with the tick.
+    @Scheduled(fixedDelayString = "${tanahora.scheduler.resync-delay-ms:600000}",
+            initialDelayString = "${tanahora.scheduler.resync-delay-ms:600000}",
+            scheduler = SchedulingConfig.DEFAULT_SCHEDULER)
+    public void resync() {
+        List<Reminder> schedule = activeSchedule(partitionLeaseManager.ownedPartitions());
+        int armed = 0;
+        synchronized (this) {
+            for (Reminder reminder : schedule) {
+                if (reminderDispatchWheel.scheduleIfAbsent(reminder.getId(), dispatchPlanner.plannedAt(reminder))) {
+                    armed++;
+                }
+            }
+        }
+        if (armed > 0) {
+            log.warn("Reminder dispatch schedule resynced: missingArmed={}", armed);
+        }
+    }
+
+    // Reminders created or snoozed on another node only reach that node's wheel. The owner arms whatever in
+    // its partitions comes due before the next pickup (plus the spread window), so they go out on time.
+    @Scheduled(fixedDelayString = "${tanahora.scheduler.dispatch.pickup-delay-ms:15000}",
+            scheduler = SchedulingConfig.REMINDER_DISPATCH_SCHEDULER)
+    public synchronized void pickUpDue() {
+        OffsetDateTime dueBefore = OffsetDateTime.now(BRAZIL_ZONEID)
+                .plus(Duration.ofMillis(dispatchProperties.getPickupDelayMs() + dispatchProperties.getSpreadWindowMs()));
+        List<Reminder> due = partitionLeaseManager.isEnabled()
+                ? reminderService.getActiveDispatchDueBefore(dueBefore, partitionLeaseManager.partitionCount(), partitionLeaseManager.ownedPartitions())
+                : reminderService.getActiveDispatchDueBefore(dueBefore);
+        long armed = due.stream().filter(reminderDispatchWheel::scheduleIfAbsent).count();
+        if (armed > 0) {
+            log.info("Reminder dispatch pickup: dueBefore={} armed={}", dueBefore, armed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tanahora.scheduler.tick-ms:1000}",
+            scheduler = SchedulingConfig.REMINDER_DISPATCH_SCHEDULER)
+    public synchronized void dispatch() {
+        long nowMillis = System.currentTimeMillis();
+        List<UUID> dueIds = reminderDispatchWheel.advance(nowMillis);
+        dueIds.removeIf(id -> !partitionLeaseManager.owns(id));
+        if (dueIds.isEmpty()) {
+            return;
+        }
+
+        List<Reminder> reminders = reminderService.getByIds(dueIds);
+        OffsetDateTime now = OffsetDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), BRAZIL_ZONEID);
+        log.info("ReminderDispatchJob started: remindersToEvaluate={} now={}", reminders.size(), now);
+
+        List<Reminder> missed = new ArrayList<>();
+        List<Reminder> stale = new ArrayList<>();
+        List<Reminder> snoozed = new ArrayList<>();
+        List<Reminder> toSend = new ArrayList<>();
+        reminders.forEach(reminder -> assignPhase(reminder, now, missed, stale, snoozed, toSend));
+
+        // Only missed and stale bookkeeping is batched; each send is recorded as soon as it returns.
+        ReminderDispatchWrites writes = new ReminderDispatchWrites();
+        List<SendTask> tasks;
+        List<SendResult> results;
+        try {
+            missed.forEach(reminder -> markMissed(reminder, now, writes));
+            stale.forEach(reminder -> skipStale(reminder, now, writes));
+
+            tasks = planSends(snoozed, toSend, now);
+            results = sendInParallel(tasks, now);
+        } finally {
+            reminderEventService.flush(writes);
+        }
+
+        log.info("ReminderDispatchJob finished: missed={} stale={} snoozedResent={} sent={} deferred={} failed={}",
+                missed.size(),
+                stale.size(),
+                tasks.stream().filter(SendTask::resend).count(),
+                tasks.stream().filter(task -> !task.resend()).count(),
+                snoozed.size() + toSend.size() - tasks.size(),
+                tasks.size() - results.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdown();
+    }
+
+    private synchronized void loadPartitions(Set<Integer> partitions) {
+        List<Reminder> schedule = activeSchedule(partitions);
+        schedule.forEach(reminderDispatchWheel::schedule);
+        log.info("Reminder dispatch partitions loaded: partitions={} reminders={}", partitions, schedule.size());
+    }
+
+    private List<Reminder> activeSchedule(Collection<Integer> partitions) {
+        if (!partitionLeaseManager.isEnabled()) {
+            return reminderService.getActiveDispatchSchedule();
+        }
+        return reminderService.getActiveDispatchSchedule(partitionLeaseManager.partitionCount(), partitions);
+    }
+
+    private void assignPhase(Reminder reminder,
+                             OffsetDateTime now,
+                             List<Reminder> missed,
+                             List<Reminder> stale,
+                             List<Reminder> snoozed,
+                             List<Reminder> toSend) {
+        if (!reminder.isActive()) {
+            log.debug("Reminder skipped: reason=INACTIVE reminderId={}", reminder.getId());
+            return;
+        }
+        if (reminder.getNextDispatch() == null) {
+            log.debug("Reminder skipped: reason=NO_NEXT_DISPATCH reminderId={}", reminder.getId());
+            return;
+        }
+
+        ReminderDispatchState state = currentDispatchState(reminder);
+        if (state != null && state.getStatus() == ReminderEventStatus.PENDING) {
+            if (state.getSentAt() == null) {
+                log.debug("Reminder skipped: reason=INVALID_PENDING_EVENT reminderId={} eventId={}",
+                        reminder.getId(), state.getEventId());
+                return;
+            }
+            OffsetDateTime deadline = state.deadline();
+            if (deadline.isBefore(now)) {
+                missed.add(reminder);
+                return;
+            }
+            log.debug("Reminder skipped: reason=PENDING_EVENT_EXISTS reminderId={} eventId={} deadline={}",
+                    reminder.getId(), state.getEventId(), deadline);
+            reminderDispatchWheel.scheduleAt(reminder.getId(), deadline);
+            return;
+        }
+
+        if (state != null && state.getStatus() == ReminderEventStatus.SNOOZED) {
+            if (state.getSnoozedUntil() == null || state.getSnoozedUntil().isAfter(now)) {
+                log.debug("Reminder skipped: reason=SNOOZE_NOT_DUE reminderId={} eventId={} snoozedUntil={}",
+                        reminder.getId(), state.getEventId(), state.getSnoozedUntil());
+                if (state.getSnoozedUntil() != null) {
+                    reminderDispatchWheel.scheduleAt(reminder.getId(), state.getSnoozedUntil());
+                }
+                return;
+            }
+            if (isStale(state.getSnoozedUntil(), now)) {
+                stale.add(reminder);
+                return;
+            }
+            snoozed.add(reminder);
+            return;
+        }
+
+        OffsetDateTime plannedAt = dispatchPlanner.plannedAt(reminder);
+        if (plannedAt.isAfter(now)) {
+            reminderDispatchWheel.scheduleAt(reminder.getId(), plannedAt);
+            return;
+        }
+        if (isStale(plannedAt, now)) {
+            stale.add(reminder);
+            return;
+        }
+
+        toSend.add(reminder);
+    }
+
+    // Reminders written before the state was denormalized fall back to the event lookups once.
+    private ReminderDispatchState currentDispatchState(Reminder reminder) {
+        if (reminder.getDispatchState() != null) {
+            return reminder.getDispatchState();
+        }
+
+        Optional<ReminderEvent> event = reminderEventService.findPendingByReminder(reminder)
+                .or(() -> reminderEventService.findLatestByReminderAndStatus(reminder, ReminderEventStatus.SNOOZED));
+        if (event.isEmpty()) {
+            return null;
+        }
+        if (event.get().getStatus() == ReminderEventStatus.PENDING && event.get().getResponseReceivedAt() != null) {
+            log.debug("Reminder skipped: reason=INVALID_PENDING_EVENT reminderId={} eventId={} responseReceivedAt={}",
+                    reminder.getId(), event.get().getId(), event.get().getResponseReceivedAt());
+            return null;
+        }
+        reminder.setDispatchState(ReminderDispatchState.of(event.get()));
+        return reminder.getDispatchState();
+    }
+
+    private void markMissed(Reminder reminder, OffsetDateTime now, ReminderDispatchWrites writes) {
+        ReminderDispatchState state = reminder.getDispatchState();
+        reminderEventService.markCurrentAsMissed(reminder, writes);
+        reminderService.updateReminderNextDispatch(reminder, writes);
+        log.info("Reminder marked as MISSED: reminderId={} eventId={} sentAt={} now={}",
+                reminder.getId(), state.getEventId(), state.getSentAt(), now);
+    }
+
+    // Occurrences older than the staleness bound are not worth sending anymore: they are recorded as
+    // MISSED and the reminder moves on to its next occurrence without notifying the user.
+    private void skipStale(Reminder reminder, OffsetDateTime now, ReminderDispatchWrites writes) {
+        ReminderDispatchState state = reminder.getDispatchState();
+        OffsetDateTime occurrence = reminder.getNextDispatch();
+        if (state != null && state.getStatus() == ReminderEventStatus.SNOOZED) {
+            reminderEventService.markCurrentAsMissed(reminder, writes);
+        } else {
+            reminderEventService.registerMissed(reminder, occurrence, writes);
+        }
+        reminderService.rescheduleQuietly(reminder, writes);
+        log.info("Stale reminder moved to MISSED: reminderId={} occurrence={} nextDispatch={} now={}",
+                reminder.getId(), occurrence, reminder.getNextDispatch(), now);
+    }
+
+    private boolean isStale(OffsetDateTime dueAt, OffsetDateTime now) {
+        return dueAt != null && dueAt.isBefore(now.minus(Duration.ofMillis(dispatchProperties.getStaleAfterMs())));
+    }
+
+    // Snoozed resends and first sends share one budget per tick. Sends that are behind by more than the
+    // catch-up lag (after downtime or a deploy) drain at a capped share of that budget, so the current
+    // minute's reminders always go out on time. Within each group resends go first, then by due time;
+    // whatever does not fit is re-armed for the next tick.
+    private List<SendTask> planSends(List<Reminder> snoozed, List<Reminder> toSend, OffsetDateTime now) {
+        OffsetDateTime lagThreshold = now.minus(Duration.ofMillis(dispatchProperties.getCatchUpLagMs()));
+        List<SendTask> current = new ArrayList<>();
+        List<SendTask> overdue = new ArrayList<>();
+        snoozed.forEach(reminder -> classify(new SendTask(reminder, true, reminder.getDispatchState().getSnoozedUntil()), lagThreshold, current, overdue));
+        toSend.forEach(reminder -> classify(new SendTask(reminder, false, dispatchPlanner.plannedAt(reminder)), lagThreshold, current, overdue));
+        Comparator<SendTask> priority = Comparator.comparing(SendTask::resend).reversed()
+                .thenComparing(SendTask::dueAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+        current.sort(priority);
+        overdue.sort(priority);
+
+        int budget = dispatchPlanner.sendBudgetPerTick();
+        int catchUpCap = Math.max(1, (int) (budget * dispatchProperties.getCatchUpShare()));
+        int overdueTake = Math.min(overdue.size(), catchUpCap);
+        int currentTake = Math.min(current.size(), budget - overdueTake);
+        trackCatchUp(overdue.size(), catchUpCap);
+
+        List<SendTask> tasks = new ArrayList<>(currentTake + overdueTake);
+        tasks.addAll(current.subList(0, currentTake));
+        tasks.addAll(overdue.subList(0, overdueTake));
+
+        OffsetDateTime nextTick = now.plus(Duration.ofMillis(reminderDispatchWheel.tickMs()));
+        current.subList(currentTake, current.size()).forEach(task -> reminderDispatchWheel.scheduleAt(task.reminder().getId(), nextTick));
+        overdue.subList(overdueTake, overdue.size()).forEach(task -> reminderDispatchWheel.scheduleAt(task.reminder().getId(), nextTick));
+        return tasks;
+    }
+
+    private void classify(SendTask task, OffsetDateTime lagThreshold, List<SendTask> current, List<SendTask> overdue) {
+        if (task.dueAt() != null && task.dueAt().isBefore(lagThreshold)) {
+            overdue.add(task);
+        } else {
+            current.add(task);
+        }
+    }
+
+    private void trackCatchUp(int backlog, int catchUpCap) {
+        if (backlog > 0 && !catchingUp) {
+            catchingUp = true;
+            long ticks = (backlog + catchUpCap - 1) / catchUpCap;
+            log.warn("Reminder catch-up started: backlog={} perTick={} estimatedDrainMs={}",
+                    backlog, catchUpCap, ticks * reminderDispatchWheel.tickMs());
+        } else if (backlog == 0 && catchingUp) {
+            catchingUp = false;
+            log.info("Reminder catch-up finished");
+        }
+    }
+
+    // Sends fan out on virtual threads, capped by the send concurrency and paced by the WhatsApp rate limiter.
+    // Each task records its own dispatch once the message is out.
+    private List<SendResult> sendInParallel(List<SendTask> tasks, OffsetDateTime now) {
+        Semaphore permits = new Semaphore(Math.max(1, dispatchProperties.getSendConcurrency()));
+        List<Future<SendResult>> futures = new ArrayList<>(tasks.size());
+        for (SendTask task : tasks) {
+            futures.add(sendExecutor.submit(() -> {
+                permits.acquire();
+                try {
+                    String messageId = sendTask(task);
+                    registerSend(task, messageId);
+                    return new SendResult(task.reminder(), task.resend(), messageId);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<SendResult> results = new ArrayList<>(tasks.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Reminder reminder = tasks.get(i).reminder();
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                log.error("Reminder send failed: reminderId={}", reminder.getId(), e.getCause());
+                reminderDispatchWheel.scheduleAt(reminder.getId(), now.plus(Duration.ofMillis(dispatchProperties.getSendRetryDelayMs())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reminderDispatchWheel.scheduleAt(reminder.getId(), now.plus(Duration.ofMillis(dispatchProperties.getSendRetryDelayMs())));
+            }
+        }
+        return results;
+    }
+
+    private String sendTask(SendTask task) {
+        if (task.resend()) {
+            return notificationService.sendNotification(task.reminder().getUser(), interactiveReminderMessage(task.reminder()));
+        }
+        return sendReminderMessage(task.reminder());
+    }
+
+    // The message is already out, so a failure here must not turn into a send retry.
+    private void registerSend(SendTask task, String messageId) {
+        Reminder reminder = task.reminder();
+        try {
+            if (task.resend()) {
+                reminderEventService.redispatchCurrent(reminder, messageId);
+                log.info("Snoozed reminder resent: reminderId={} eventId={} userId={} messageId={}",
+                        reminder.getId(), reminder.getDispatchState().getEventId(), reminder.getUser().getId(), messageId);
+            } else {
+                reminderEventService.registerDispatch(reminder, messageId);
+                log.info("Reminder sent: reminderId={} userId={} messageId={}",
+                        reminder.getId(), reminder.getUser().getId(), messageId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Reminder sent but not recorded: reminderId={} messageId={}", reminder.getId(), messageId, e);
+        }
+    }
+
+    private String sendReminderMessage(Reminder reminder) {
+        if (isFreeWindowOpen(reminder)) {
+            return notificationService.sendNotification(reminder.getUser(), interactiveReminderMessage(reminder));
+        }
+
+        return notificationService.sendNotification(reminder.getUser(), TemplateWhatsAppMessage
+                .builder()
+                .to(reminder.getUser().getWhatsappId())
+                .template(WhatsAppTemplates.SEND_REMINDER)
+                .bodyParameter(reminder.getPatientName())
+                .bodyParameter(reminder.getMedication().getName())
+                .bodyParameter(reminder.getMedication().getDosage())
+                .build());
+    }
+
+    private InteractiveWhatsAppMessage interactiveReminderMessage(Reminder reminder) {
+        return InteractiveWhatsAppMessage
+                .builder()
+                .to(reminder.getUser().getWhatsappId())
+                .text(reminder.createSendReminderMessage())
+                .button(new Button().setType(ButtonType.REPLY).setReply(new Reply().setTitle("Tomei").setId("tomei_btn")))
+                .button(new Button().setType(ButtonType.REPLY).setReply(new Reply().setTitle("Adiar por uma hora").setId("adiar_btn")))
+                .button(new Button().setType(ButtonType.REPLY).setReply(new Reply().setTitle("Pular").setId("pular_btn")))
+                .build();
+    }
+
+    private boolean isFreeWindowOpen(Reminder reminder) {
+        User user = reminder.getUser();
+        if (user == null || user.getWhatsappId() == null || user.getWhatsappId().isBlank()) {
+            return false;
+        }
+        if (user.getLastInboundAt() == null) {
+            backfillLastInboundAt(user);
+        }
+        return user.isFreeWindowOpen();
+    }
+
+    // Users created before lastInboundAt existed get it from their latest message once.
+    private void backfillLastInboundAt(User user) {
+        MessageReceived lastMessage = messageReceivedRepository.findTopByWhatsappIdOrderByReceivedAtDesc(user.getWhatsappId());
+        if (lastMessage == null || lastMessage.getReceivedAt() == null) {
+            return;
+        }
+        user.setLastInboundAt(lastMessage.getReceivedAt());
+        userRepository.updateLastInboundAt(user.getWhatsappId(), lastMessage.getReceivedAt());
+    }
+
+    private record SendTask(Reminder reminder, boolean resend, OffsetDateTime dueAt) {
+    }
+
+    private record SendResult(Reminder reminder, boolean resend, String messageId) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.abba.tanahora.infrastructure.scheduler;
+
+import com.abba.tanahora.domain.model.Reminder;
+import com.abba.tanahora.infrastructure.config.ReminderDispatchProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// Most schedules land on round times, so first sends are spread over ±spread-window around their
+// occurrence. The offset is derived from the reminder id: stable across restarts and resyncs, and
+// uniform enough to flatten the top-of-hour spike.
+@Component
+@RequiredArgsConstructor
+public class ReminderDispatchPlanner {
+
+    private final ReminderDispatchProperties properties;
+
+    public OffsetDateTime plannedAt(Reminder reminder) {
+        return plannedAt(reminder.getId(), reminder.getNextDispatch());
+    }
+
+    public OffsetDateTime plannedAt(UUID reminderId, OffsetDateTime nextDispatch) {
+        if (nextDispatch == null) {
+            return null;
+        }
+        return nextDispatch.plus(Duration.ofMillis(offsetMillis(reminderId)));
+    }
+
+    public int sendBudgetPerTick() {
+        return Math.max(1, properties.getSendBudgetPerTick());
+    }
+
+    private long offsetMillis(UUID reminderId) {
+        long window = properties.getSpreadWindowMs();
+        if (window <= 0) {
+            return 0;
+        }
+        long mixed = (reminderId.getLeastSignificantBits() ^ reminderId.getMostSignificantBits()) * 0xBF58476D1CE4E5B9L;
+        mixed ^= mixed >>> 31;
+        return Math.floorMod(mixed, 2 * window + 1) - window;
+    }
+}
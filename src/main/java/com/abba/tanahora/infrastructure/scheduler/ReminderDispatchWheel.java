@@ -0,0 +1,88 @@
+package com.abba.tanahora.infrastructure.scheduler;
+
+import com.abba.tanahora.domain.model.Reminder;
+import com.abba.tanahora.domain.service.ReminderDispatchScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@Slf4j
+public class ReminderDispatchWheel implements ReminderDispatchScheduler {
+
+    private final ReminderTimingWheel wheel;
+    private final ReminderDispatchPlanner planner;
+    private final long tickMs;
+
+    public ReminderDispatchWheel(@Value("${tanahora.scheduler.tick-ms:1000}") long tickMs,
+                                 ReminderDispatchPlanner planner) {
+        this.wheel = new ReminderTimingWheel(tickMs, System.currentTimeMillis());
+        this.planner = planner;
+        this.tickMs = tickMs;
+    }
+
+    @Override
+    public void schedule(Reminder reminder) {
+        if (reminder == null || reminder.getId() == null) {
+            return;
+        }
+        if (!reminder.isActive() || reminder.getNextDispatch() == null) {
+            unschedule(reminder);
+            return;
+        }
+        OffsetDateTime deadline = reminder.getDispatchState() == null ? null : reminder.getDispatchState().deadline();
+        scheduleAt(reminder.getId(), deadline != null ? deadline : planner.plannedAt(reminder));
+    }
+
+    @Override
+    public void scheduleDeadline(Reminder reminder) {
+        if (reminder == null || reminder.getId() == null || reminder.getDispatchState() == null) {
+            return;
+        }
+        OffsetDateTime deadline = reminder.getDispatchState().deadline();
+        if (deadline != null) {
+            scheduleAt(reminder.getId(), deadline);
+        }
+    }
+
+    @Override
+    public synchronized void unschedule(Reminder reminder) {
+        if (reminder == null || reminder.getId() == null) {
+            return;
+        }
+        if (wheel.cancel(reminder.getId())) {
+            log.debug("Reminder unscheduled: reminderId={}", reminder.getId());
+        }
+    }
+
+    public synchronized void scheduleAt(UUID reminderId, OffsetDateTime at) {
+        wheel.schedule(reminderId, at.toInstant().toEpochMilli());
+        log.debug("Reminder scheduled: reminderId={} at={}", reminderId, at);
+    }
+
+    public boolean scheduleIfAbsent(Reminder reminder) {
+        OffsetDateTime deadline = reminder.getDispatchState() == null ? null : reminder.getDispatchState().deadline();
+        OffsetDateTime at = deadline != null ? deadline : planner.plannedAt(reminder);
+        return at != null && scheduleIfAbsent(reminder.getId(), at);
+    }
+
+    public synchronized boolean scheduleIfAbsent(UUID reminderId, OffsetDateTime at) {
+        return wheel.scheduleIfAbsent(reminderId, at.toInstant().toEpochMilli());
+    }
+
+    public long tickMs() {
+        return tickMs;
+    }
+
+    public synchronized List<UUID> advance(long nowMillis) {
+        return wheel.advance(nowMillis);
+    }
+
+    public synchronized int size() {
+        return wheel.size();
+    }
+}
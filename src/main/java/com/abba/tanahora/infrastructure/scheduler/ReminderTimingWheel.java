@@ -0,0 +1,304 @@
+package com.abba.tanahora.infrastructure.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+// Hierarchical timing wheel keyed by reminder id. Entries live in parallel primitive arrays
+// (deadline tick, id bits and intrusive list links) so the wheel never retains Reminder objects.
+// Not thread-safe: callers synchronize access.
+final class ReminderTimingWheel {
+
+    // seconds, minutes, hours and days when ticking once per second
+    private static final int[] SLOTS_PER_LEVEL = {60, 60, 24, 64};
+    private static final int LEVELS = SLOTS_PER_LEVEL.length;
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final long tickMs;
+    private final long[] ticksPerSlot = new long[LEVELS];
+    private final long[] levelSpan = new long[LEVELS];
+    private final int[] levelOffset = new int[LEVELS];
+    private final int overflowList;
+    private final int expiredList;
+    private final int[] listHead;
+
+    private long[] deadlines;
+    private long[] idHigh;
+    private long[] idLow;
+    private int[] next;
+    private int[] prev;
+    private int[] list;
+    private int freeHead = NIL;
+    private int allocated;
+    private int size;
+
+    private int[] index;
+    private int indexMask;
+
+    private long currentTick;
+
+    ReminderTimingWheel(long tickMs, long nowMillis) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        this.tickMs = tickMs;
+
+        int lists = 0;
+        long ticks = 1;
+        for (int level = 0; level < LEVELS; level++) {
+            ticksPerSlot[level] = ticks;
+            levelSpan[level] = ticks * SLOTS_PER_LEVEL[level];
+            levelOffset[level] = lists;
+            lists += SLOTS_PER_LEVEL[level];
+            ticks = levelSpan[level];
+        }
+        this.overflowList = lists++;
+        this.expiredList = lists++;
+        this.listHead = new int[lists];
+        Arrays.fill(listHead, NIL);
+
+        this.deadlines = new long[INITIAL_CAPACITY];
+        this.idHigh = new long[INITIAL_CAPACITY];
+        this.idLow = new long[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.prev = new int[INITIAL_CAPACITY];
+        this.list = new int[INITIAL_CAPACITY];
+        this.index = new int[INITIAL_CAPACITY * 2];
+        this.indexMask = index.length - 1;
+        Arrays.fill(index, NIL);
+
+        this.currentTick = Math.floorDiv(nowMillis, tickMs);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(UUID id) {
+        return find(id.getMostSignificantBits(), id.getLeastSignificantBits()) != NIL;
+    }
+
+    void schedule(UUID id, long deadlineMillis) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int pos = find(high, low);
+        int entry;
+        if (pos != NIL) {
+            entry = index[pos];
+            unlink(entry);
+        } else {
+            entry = allocate(high, low);
+            indexInsert(entry);
+            size++;
+        }
+        deadlines[entry] = Math.ceilDiv(deadlineMillis, tickMs);
+        place(entry);
+    }
+
+    boolean scheduleIfAbsent(UUID id, long deadlineMillis) {
+        if (contains(id)) {
+            return false;
+        }
+        schedule(id, deadlineMillis);
+        return true;
+    }
+
+    boolean cancel(UUID id) {
+        int pos = find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (pos == NIL) {
+            return false;
+        }
+        int entry = index[pos];
+        unlink(entry);
+        indexRemove(pos);
+        release(entry);
+        size--;
+        return true;
+    }
+
+    // Moves the wheel up to nowMillis and returns, tick by tick, every id whose deadline has passed.
+    List<UUID> advance(long nowMillis) {
+        List<UUID> fired = new ArrayList<>();
+        long targetTick = Math.floorDiv(nowMillis, tickMs);
+        drain(expiredList, fired);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            drain(levelOffset[0] + (int) (currentTick % SLOTS_PER_LEVEL[0]), fired);
+            drain(expiredList, fired);
+        }
+        return fired;
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if (currentTick % ticksPerSlot[level] != 0) {
+                return;
+            }
+            replace(levelOffset[level] + (int) ((currentTick / ticksPerSlot[level]) % SLOTS_PER_LEVEL[level]));
+        }
+        replace(overflowList);
+    }
+
+    private void replace(int listId) {
+        int entry = listHead[listId];
+        listHead[listId] = NIL;
+        while (entry != NIL) {
+            int following = next[entry];
+            place(entry);
+            entry = following;
+        }
+    }
+
+    private void drain(int listId, List<UUID> fired) {
+        int entry = listHead[listId];
+        listHead[listId] = NIL;
+        while (entry != NIL) {
+            int following = next[entry];
+            if (deadlines[entry] > currentTick) {
+                place(entry);
+            } else {
+                fired.add(new UUID(idHigh[entry], idLow[entry]));
+                indexRemove(find(idHigh[entry], idLow[entry]));
+                release(entry);
+                size--;
+            }
+            entry = following;
+        }
+    }
+
+    private void place(int entry) {
+        long deadline = deadlines[entry];
+        long delta = deadline - currentTick;
+        int target = overflowList;
+        if (delta <= 0) {
+            target = expiredList;
+        } else {
+            for (int level = 0; level < LEVELS; level++) {
+                if (delta < levelSpan[level]) {
+                    target = levelOffset[level] + (int) ((deadline / ticksPerSlot[level]) % SLOTS_PER_LEVEL[level]);
+                    break;
+                }
+            }
+        }
+        link(entry, target);
+    }
+
+    private void link(int entry, int listId) {
+        int head = listHead[listId];
+        next[entry] = head;
+        prev[entry] = NIL;
+        if (head != NIL) {
+            prev[head] = entry;
+        }
+        listHead[listId] = entry;
+        list[entry] = listId;
+    }
+
+    private void unlink(int entry) {
+        int listId = list[entry];
+        if (listId == NIL) {
+            return;
+        }
+        if (prev[entry] != NIL) {
+            next[prev[entry]] = next[entry];
+        } else if (listHead[listId] == entry) {
+            listHead[listId] = next[entry];
+        }
+        if (next[entry] != NIL) {
+            prev[next[entry]] = prev[entry];
+        }
+        next[entry] = NIL;
+        prev[entry] = NIL;
+        list[entry] = NIL;
+    }
+
+    private int allocate(long high, long low) {
+        int entry;
+        if (freeHead != NIL) {
+            entry = freeHead;
+            freeHead = next[entry];
+        } else {
+            if (allocated == deadlines.length) {
+                grow();
+            }
+            entry = allocated++;
+        }
+        idHigh[entry] = high;
+        idLow[entry] = low;
+        next[entry] = NIL;
+        prev[entry] = NIL;
+        list[entry] = NIL;
+        return entry;
+    }
+
+    private void release(int entry) {
+        list[entry] = NIL;
+        prev[entry] = NIL;
+        next[entry] = freeHead;
+        freeHead = entry;
+    }
+
+    private void grow() {
+        int capacity = deadlines.length * 2;
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        list = Arrays.copyOf(list, capacity);
+
+        int[] previous = index;
+        index = new int[capacity * 2];
+        indexMask = index.length - 1;
+        Arrays.fill(index, NIL);
+        for (int entry : previous) {
+            if (entry != NIL) {
+                indexInsert(entry);
+            }
+        }
+    }
+
+    private int find(long high, long low) {
+        int pos = hash(high, low) & indexMask;
+        while (index[pos] != NIL) {
+            int entry = index[pos];
+            if (idHigh[entry] == high && idLow[entry] == low) {
+                return pos;
+            }
+            pos = (pos + 1) & indexMask;
+        }
+        return NIL;
+    }
+
+    private void indexInsert(int entry) {
+        int pos = hash(idHigh[entry], idLow[entry]) & indexMask;
+        while (index[pos] != NIL) {
+            pos = (pos + 1) & indexMask;
+        }
+        index[pos] = entry;
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones.
+    private void indexRemove(int pos) {
+        int gap = pos;
+        int cursor = (pos + 1) & indexMask;
+        while (index[cursor] != NIL) {
+            int entry = index[cursor];
+            int home = hash(idHigh[entry], idLow[entry]) & indexMask;
+            if (((cursor - home) & indexMask) >= ((cursor - gap) & indexMask)) {
+                index[gap] = entry;
+                gap = cursor;
+            }
+            cursor = (cursor + 1) & indexMask;
+        }
+        index[gap] = NIL;
+    }
+
+    private static int hash(long high, long low) {
+        long h = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,162 @@
+package com.abba.tanahora.infrastructure.scheduler;
+
+import com.abba.tanahora.domain.model.Reminder;
+import com.abba.tanahora.domain.model.SchedulerLease;
+import com.abba.tanahora.domain.model.SchedulerNode;
+import com.abba.tanahora.infrastructure.config.SchedulerPartitionProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "tictacmed.scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulerPartitionLeaseManager {
+
+    private final MongoTemplate mongoTemplate;
+    private final SchedulerPartitionProperties properties;
+    private final String nodeId;
+    private final ConcurrentSkipListSet<Integer> ownedPartitions = new ConcurrentSkipListSet<>();
+
+    public SchedulerPartitionLeaseManager(MongoTemplate mongoTemplate, SchedulerPartitionProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.nodeId = properties.getNodeId() == null || properties.getNodeId().isBlank()
+                ? UUID.randomUUID().toString()
+                : properties.getNodeId();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public int partitionCount() {
+        return properties.getCount();
+    }
+
+    public int partitionOf(UUID reminderId) {
+        return Reminder.dispatchHashOf(reminderId) % properties.getCount();
+    }
+
+    public boolean owns(UUID reminderId) {
+        return !isEnabled() || ownedPartitions.contains(partitionOf(reminderId));
+    }
+
+    public boolean ownsPartition(int partition) {
+        return !isEnabled() || ownedPartitions.contains(partition);
+    }
+
+    public Set<Integer> ownedPartitions() {
+        return Collections.unmodifiableSet(new TreeSet<>(ownedPartitions));
+    }
+
+    // Heartbeats, renews the leases this node holds, sheds any above its fair share and
+    // takes free or expired ones up to that share. Returns the partitions acquired in this round.
+    public synchronized Set<Integer> renew() {
+        if (!isEnabled()) {
+            return Set.of();
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime expiresAt = now.plus(Duration.ofMillis(properties.getLeaseMs()));
+        heartbeat(now);
+        int fairShare = fairShare(now);
+
+        for (Integer partition : List.copyOf(ownedPartitions)) {
+            if (!extend(partition, expiresAt)) {
+                ownedPartitions.remove(partition);
+                log.warn("Scheduler partition lease lost: nodeId={} partition={}", nodeId, partition);
+            }
+        }
+
+        while (ownedPartitions.size() > fairShare) {
+            int partition = ownedPartitions.last();
+            release(partition, now);
+            ownedPartitions.remove(partition);
+            log.info("Scheduler partition lease released: nodeId={} partition={} fairShare={}", nodeId, partition, fairShare);
+        }
+
+        Set<Integer> acquired = new TreeSet<>();
+        for (int partition = 0; partition < properties.getCount() && ownedPartitions.size() < fairShare; partition++) {
+            if (!ownedPartitions.contains(partition) && tryAcquire(partition, now, expiresAt)) {
+                ownedPartitions.add(partition);
+                acquired.add(partition);
+            }
+        }
+        if (!acquired.isEmpty()) {
+            log.info("Scheduler partition leases acquired: nodeId={} partitions={} owned={}", nodeId, acquired, ownedPartitions.size());
+        }
+        return acquired;
+    }
+
+    @PreDestroy
+    public synchronized void releaseAll() {
+        if (!isEnabled()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        ownedPartitions.forEach(partition -> release(partition, now));
+        ownedPartitions.clear();
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(nodeId)), SchedulerNode.class);
+    }
+
+    private void heartbeat(OffsetDateTime now) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(nodeId)),
+                Update.update("lastSeenAt", now),
+                SchedulerNode.class);
+    }
+
+    private int fairShare(OffsetDateTime now) {
+        long liveNodes = mongoTemplate.count(
+                Query.query(Criteria.where("lastSeenAt").gt(now.minus(Duration.ofMillis(properties.getLeaseMs())))),
+                SchedulerNode.class);
+        return (int) Math.ceilDiv(properties.getCount(), Math.max(1, liveNodes));
+    }
+
+    private boolean extend(int partition, OffsetDateTime expiresAt) {
+        SchedulerLease lease = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(partition).and("owner").is(nodeId)),
+                Update.update("expiresAt", expiresAt),
+                FindAndModifyOptions.options().returnNew(true),
+                SchedulerLease.class);
+        return lease != null;
+    }
+
+    private boolean tryAcquire(int partition, OffsetDateTime now, OffsetDateTime expiresAt) {
+        Query query = Query.query(Criteria.where("_id").is(partition)
+                .orOperator(Criteria.where("owner").isNull(), Criteria.where("expiresAt").lt(now)));
+        Update update = Update.update("owner", nodeId)
+                .set("acquiredAt", now)
+                .set("expiresAt", expiresAt);
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    SchedulerLease.class) != null;
+        } catch (DuplicateKeyException e) {
+            // the lease document exists and is still held by another node
+            return false;
+        }
+    }
+
+    private void release(int partition, OffsetDateTime now) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(partition).and("owner").is(nodeId)),
+                Update.update("owner", null).set("expiresAt", now),
+                SchedulerLease.class);
+    }
+}
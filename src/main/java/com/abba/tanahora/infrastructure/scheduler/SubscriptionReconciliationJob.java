@@ -2,19 +2,38 @@ package com.abba.tanahora.infrastructure.scheduler;
 
 import com.abba.tanahora.domain.service.SubscriptionService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @Component
+@Slf4j
 @ConditionalOnProperty(prefix = "tictacmed.scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 public class SubscriptionReconciliationJob {
 
     private final SubscriptionService subscriptionService;
+    private final SchedulerPartitionLeaseManager partitionLeaseManager;
+    private final AtomicBoolean running = new AtomicBoolean();
 
     @Scheduled(cron = "${tanahora.billing.reconciliation-cron:0 0 3 * * *}")
     public void reconcileDaily() {
-        subscriptionService.runDailyReconciliation();
+        // singleton job: runs only on the node holding partition 0
+        if (!partitionLeaseManager.ownsPartition(0)) {
+            return;
+        }
+        // cron runs are handed off to their own thread, so a slow run can still be going when the next one fires
+        if (!running.compareAndSet(false, true)) {
+            log.warn("SubscriptionReconciliationJob skipped: previous run still in progress");
+            return;
+        }
+        try {
+            subscriptionService.runDailyReconciliation();
+        } finally {
+            running.set(false);
+        }
     }
 }
@@ -25,6 +25,7 @@ public class WhatsAppGatewayImpl implements WhatsAppGateway {
 
     private final WhatsAppProperties properties;
     private final ObjectMapper objectMapper;
+    private final WhatsAppRateLimiter rateLimiter;
     private final OkHttpClient httpClient = new OkHttpClient();
 
     @Override
@@ -51,6 +52,7 @@ public class WhatsAppGatewayImpl implements WhatsAppGateway {
                 .addHeader("Authorization", "Bearer " + properties.getAccessToken())
                 .build();
 
+        rateLimiter.acquire();
         try (Response response = httpClient.newCall(request).execute()) {
             String responseBody = response.body() != null ? response.body().string() : "";
             if (!response.isSuccessful()) {
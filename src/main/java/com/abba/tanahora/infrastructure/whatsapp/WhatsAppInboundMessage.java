@@ -0,0 +1,45 @@
+package com.abba.tanahora.infrastructure.whatsapp;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+
+public record WhatsAppInboundMessage(
+        String id,
+        String from,
+        String contactName,
+        String replyTo,
+        String type,
+        String text,
+        String interactiveButtonId,
+        String mediaId,
+        String mediaMimeType,
+        String mediaFilename,
+        String mediaSha256) {
+
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+
+    public boolean hasMedia() {
+        return mediaId != null && !mediaId.isBlank();
+    }
+
+    public boolean isComplete() {
+        return id != null && from != null && (hasText() || hasMedia());
+    }
+
+    public MessageReceived toMessageReceived() {
+        MessageReceived messageReceived = new MessageReceived();
+        messageReceived.setId(id);
+        messageReceived.setWhatsappId(from);
+        messageReceived.setContactName(contactName);
+        messageReceived.setRepliedTo(replyTo);
+        messageReceived.setMessageType(type);
+        messageReceived.setMessage(text);
+        messageReceived.setInteractiveButtonId(interactiveButtonId);
+        messageReceived.setMediaId(mediaId);
+        messageReceived.setMediaMimeType(mediaMimeType);
+        messageReceived.setMediaFilename(mediaFilename);
+        messageReceived.setMediaSha256(mediaSha256);
+        return messageReceived;
+    }
+}
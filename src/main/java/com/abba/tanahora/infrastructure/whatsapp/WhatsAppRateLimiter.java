@@ -0,0 +1,45 @@
+package com.abba.tanahora.infrastructure.whatsapp;
+
+import com.abba.tanahora.infrastructure.config.WhatsAppProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Token bucket shared by every outbound Graph API call from our from-number. Callers reserve a
+// token up front (the balance may go negative) and sleep until it is theirs, so waiting threads
+// are served in arrival order without busy spinning.
+@Component
+public class WhatsAppRateLimiter {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public WhatsAppRateLimiter(WhatsAppProperties properties) {
+        double messagesPerSecond = Math.max(1, properties.getMessagesPerSecond());
+        this.permitsPerNano = messagesPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, properties.getBurst() > 0 ? properties.getBurst() : messagesPerSecond);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public void acquire() {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+}
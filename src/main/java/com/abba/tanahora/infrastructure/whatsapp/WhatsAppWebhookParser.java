@@ -0,0 +1,236 @@
+package com.abba.tanahora.infrastructure.whatsapp;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Pulls the fields we use straight off the token stream of a webhook payload
+// (entry[].changes[].value.{contacts,messages}), skipping everything else without building a tree.
+@Component
+public class WhatsAppWebhookParser {
+
+    private final JsonFactory jsonFactory;
+
+    public WhatsAppWebhookParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public List<WhatsAppInboundMessage> parse(InputStream body) throws IOException {
+        List<WhatsAppInboundMessage> messages = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() == null) {
+                return messages;
+            }
+            forEachField(parser, field -> {
+                if ("entry".equals(field)) {
+                    forEachObject(parser, () -> readEntry(parser, messages));
+                } else {
+                    parser.skipChildren();
+                }
+            });
+        }
+        return messages;
+    }
+
+    private void readEntry(JsonParser parser, List<WhatsAppInboundMessage> messages) throws IOException {
+        forEachField(parser, field -> {
+            if ("changes".equals(field)) {
+                forEachObject(parser, () -> forEachField(parser, changeField -> {
+                    if ("value".equals(changeField)) {
+                        readValue(parser, messages);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }));
+            } else {
+                parser.skipChildren();
+            }
+        });
+    }
+
+    // contacts and messages are siblings in no guaranteed order, so the contact name is applied once the value ends
+    private void readValue(JsonParser parser, List<WhatsAppInboundMessage> messages) throws IOException {
+        List<MessageFields> fields = new ArrayList<>();
+        String[] contactName = new String[1];
+        forEachField(parser, field -> {
+            switch (field) {
+                case "contacts" -> forEachObject(parser, () -> forEachField(parser, contactField -> {
+                    if ("profile".equals(contactField)) {
+                        forEachField(parser, profileField -> {
+                            if ("name".equals(profileField) && contactName[0] == null) {
+                                contactName[0] = scalar(parser);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        });
+                    } else {
+                        parser.skipChildren();
+                    }
+                }));
+                case "messages" -> forEachObject(parser, () -> fields.add(readMessage(parser)));
+                default -> parser.skipChildren();
+            }
+        });
+        for (MessageFields message : fields) {
+            messages.add(message.toMessage(contactName[0]));
+        }
+    }
+
+    private MessageFields readMessage(JsonParser parser) throws IOException {
+        MessageFields message = new MessageFields();
+        forEachField(parser, field -> {
+            switch (field) {
+                case "id" -> message.id = scalar(parser);
+                case "from" -> message.from = scalar(parser);
+                case "type" -> message.type = scalar(parser);
+                case "context" -> readStrings(parser, (name, value) -> {
+                    if ("id".equals(name)) message.replyTo = value;
+                });
+                case "text" -> readStrings(parser, (name, value) -> {
+                    if ("body".equals(name)) message.text = value;
+                });
+                case "interactive" -> forEachField(parser, interactiveField -> {
+                    switch (interactiveField) {
+                        case "button_reply" -> readStrings(parser, (name, value) -> {
+                            if ("id".equals(name)) message.buttonId = value;
+                            if ("title".equals(name)) message.buttonTitle = value;
+                        });
+                        case "list_reply" -> readStrings(parser, (name, value) -> {
+                            if ("id".equals(name)) message.listId = value;
+                            if ("title".equals(name)) message.listTitle = value;
+                        });
+                        default -> parser.skipChildren();
+                    }
+                });
+                case "image" -> readStrings(parser, message.image::set);
+                case "document" -> readStrings(parser, message.document::set);
+                default -> parser.skipChildren();
+            }
+        });
+        return message;
+    }
+
+    private void readStrings(JsonParser parser, StringFieldReader reader) throws IOException {
+        forEachField(parser, field -> {
+            String value = scalar(parser);
+            if (value != null) {
+                reader.read(field, value);
+            }
+        });
+    }
+
+    private String scalar(JsonParser parser) throws IOException {
+        if (!parser.currentToken().isScalarValue()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    // Expects the parser on START_OBJECT; each handler must consume the whole value of its field.
+    private void forEachField(JsonParser parser, FieldReader reader) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            reader.read(field);
+        }
+    }
+
+    private void forEachObject(JsonParser parser, ElementReader reader) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                reader.read();
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldReader {
+        void read(String field) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ElementReader {
+        void read() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface StringFieldReader {
+        void read(String field, String value);
+    }
+
+    private static final class MessageFields {
+        private String id;
+        private String from;
+        private String type;
+        private String replyTo;
+        private String text;
+        private String buttonId;
+        private String buttonTitle;
+        private String listId;
+        private String listTitle;
+        private final MediaFields image = new MediaFields();
+        private final MediaFields document = new MediaFields();
+
+        private WhatsAppInboundMessage toMessage(String contactName) {
+            if ("interactive".equals(type)) {
+                return new WhatsAppInboundMessage(id, from, contactName, replyTo, type,
+                        firstNonBlank(buttonTitle, listTitle, buttonId, listId), firstNonBlank(buttonId, listId),
+                        null, null, null, null);
+            }
+            if ("image".equals(type)) {
+                return new WhatsAppInboundMessage(id, from, contactName, replyTo, type, image.caption, null,
+                        image.id, image.mimeType, null, image.sha256);
+            }
+            if ("document".equals(type)) {
+                return new WhatsAppInboundMessage(id, from, contactName, replyTo, type, document.caption, null,
+                        document.id, document.mimeType, document.filename, document.sha256);
+            }
+            return new WhatsAppInboundMessage(id, from, contactName, replyTo, type, text, null, null, null, null, null);
+        }
+    }
+
+    private static final class MediaFields {
+        private String id;
+        private String mimeType;
+        private String filename;
+        private String sha256;
+        private String caption;
+
+        private void set(String field, String value) {
+            switch (field) {
+                case "id" -> id = value;
+                case "mime_type" -> mimeType = value;
+                case "filename" -> filename = value;
+                case "sha256" -> sha256 = value;
+                case "caption" -> caption = value;
+                default -> {
+                }
+            }
+        }
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) return value;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,199 @@
+package com.abba.tanahora.application.messaging.classifier;
+
+import com.abba.tanahora.application.dto.AiMessageProcessorDto;
+import com.abba.tanahora.application.dto.MessageReceivedType;
+import com.abba.tanahora.application.messaging.AIMessage;
+import com.abba.tanahora.infrastructure.config.ClassificationRulesProperties;
+import com.abba.tanahora.support.MongoCollectionsCleanupExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.task.scheduling.enabled=false",
+        "tictacmed.scheduler.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MongoCollectionsCleanupExtension.class)
+class RuleBasedMessageClassifierIntegrationTest {
+
+    @Container
+    static final MongoDBContainer MONGO_DB_CONTAINER = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void registerMongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", MONGO_DB_CONTAINER::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "tanahora-tests");
+    }
+
+    @Autowired
+    private RuleBasedMessageClassifier ruleBasedMessageClassifier;
+
+    @Autowired
+    private RecordingOpenAiMessageClassifier openAiMessageClassifier;
+
+    @Autowired
+    private ScheduleSentenceParser scheduleSentenceParser;
+
+    @BeforeEach
+    void cleanLlmCalls() {
+        openAiMessageClassifier.clear();
+    }
+
+    @Test
+    @DisplayName("Given a reminder button click and a known typed phrase, " +
+            "when the rule-based classifier runs, " +
+            "then both are classified locally without calling the LLM")
+    void givenButtonAndKnownPhraseWhenClassifiedThenResolvesLocally() {
+        // Given
+        AIMessage button = createMessage("tomei_btn", "Tomei");
+        AIMessage typed = createMessage(null, "  Não TOMEI! ");
+
+        // When
+        AiMessageProcessorDto buttonClassification = ruleBasedMessageClassifier.classify(button);
+        AiMessageProcessorDto typedClassification = ruleBasedMessageClassifier.classify(typed);
+
+        // Then
+        assertThat(buttonClassification.getType()).isEqualTo(MessageReceivedType.REMINDER_RESPONSE_TAKEN);
+        assertThat(typedClassification.getType()).isEqualTo(MessageReceivedType.REMINDER_RESPONSE_SKIPPED);
+        assertThat(openAiMessageClassifier.getBodies()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a common registration sentence, " +
+            "when the rule-based classifier runs, " +
+            "then the schedule is parsed locally without calling the LLM")
+    void givenRegistrationSentenceWhenClassifiedThenParsesScheduleLocally() {
+        // Given
+        AIMessage message = createMessage(null, "Dipirona 500mg a cada 8 horas durante 7 dias");
+
+        // When
+        AiMessageProcessorDto classification = ruleBasedMessageClassifier.classify(message);
+
+        // Then
+        assertThat(classification.getType()).isEqualTo(MessageReceivedType.REMINDER_CREATION);
+        assertThat(classification.getMedication()).isEqualTo("Dipirona");
+        assertThat(classification.getRrule()).startsWith("FREQ=HOURLY;INTERVAL=8;UNTIL=");
+        assertThat(openAiMessageClassifier.getBodies()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given known phrases followed by a cancel request or a medication name, " +
+            "when the rule-based classifier runs, " +
+            "then both go to the LLM")
+    void givenKnownPhraseWithCancelVerbOrMedicationWhenClassifiedThenFallsThroughToLlm() {
+        // Given
+        AIMessage withCancel = createMessage(null, "Não tomei, cancela esse lembrete");
+        AIMessage withMedication = createMessage(null, "Tomei a dipirona");
+
+        // When
+        AiMessageProcessorDto cancelClassification = ruleBasedMessageClassifier.classify(withCancel);
+        AiMessageProcessorDto medicationClassification = ruleBasedMessageClassifier.classify(withMedication);
+
+        // Then
+        assertThat(cancelClassification.getType()).isEqualTo(MessageReceivedType.SUPPORT);
+        assertThat(medicationClassification.getType()).isEqualTo(MessageReceivedType.SUPPORT);
+        assertThat(openAiMessageClassifier.getBodies())
+                .containsExactly("Não tomei, cancela esse lembrete", "Tomei a dipirona");
+    }
+
+    @Test
+    @DisplayName("Given a click on a button id the rules do not know, " +
+            "when the rule-based classifier runs, " +
+            "then it goes to the LLM")
+    void givenUnknownButtonIdWhenClassifiedThenFallsThroughToLlm() {
+        // Given
+        AIMessage message = createMessage("talvez_btn", "Talvez");
+
+        // When
+        AiMessageProcessorDto classification = ruleBasedMessageClassifier.classify(message);
+
+        // Then
+        assertThat(classification.getType()).isEqualTo(MessageReceivedType.SUPPORT);
+        assertThat(openAiMessageClassifier.getBodies()).containsExactly("Talvez");
+    }
+
+    @Test
+    @DisplayName("Given rules properties without buttons or phrases, " +
+            "when a button click and a reply phrase are classified, " +
+            "then both go to the LLM")
+    void givenNoRulesConfiguredWhenClassifiedThenFallsThroughToLlm() {
+        // Given
+        ClassificationRulesProperties properties = new ClassificationRulesProperties();
+        properties.setButtons(Map.of());
+        properties.setPhrases(new EnumMap<>(MessageReceivedType.class));
+        RuleBasedMessageClassifier classifier = new RuleBasedMessageClassifier(
+                openAiMessageClassifier, scheduleSentenceParser, properties, new SimpleMeterRegistry());
+
+        // When
+        AiMessageProcessorDto buttonClassification = classifier.classify(createMessage("tomei_btn", "Tomei"));
+        AiMessageProcessorDto typedClassification = classifier.classify(createMessage(null, "tomei"));
+
+        // Then
+        assertThat(buttonClassification.getType()).isEqualTo(MessageReceivedType.SUPPORT);
+        assertThat(typedClassification.getType()).isEqualTo(MessageReceivedType.SUPPORT);
+        assertThat(openAiMessageClassifier.getBodies()).containsExactly("Tomei", "tomei");
+    }
+
+    private AIMessage createMessage(String buttonId, String body) {
+        AIMessage message = new AIMessage();
+        message.setId("msg-" + buttonId);
+        message.setWhatsappId("5511999990000");
+        message.setMessageType(buttonId == null ? "text" : "interactive");
+        message.setInteractiveButtonId(buttonId);
+        message.setBody(body);
+        return message;
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        @Primary
+        RecordingOpenAiMessageClassifier recordingOpenAiMessageClassifier() {
+            return new RecordingOpenAiMessageClassifier();
+        }
+    }
+
+    static class RecordingOpenAiMessageClassifier extends OpenAiMessageClassifier {
+        private final List<String> bodies = new CopyOnWriteArrayList<>();
+
+        RecordingOpenAiMessageClassifier() {
+            super(null, null);
+        }
+
+        @Override
+        public AiMessageProcessorDto classify(AIMessage message) {
+            bodies.add(message.getBody());
+            AiMessageProcessorDto dto = new AiMessageProcessorDto();
+            dto.setType(MessageReceivedType.SUPPORT);
+            return dto;
+        }
+
+        List<String> getBodies() {
+            return bodies;
+        }
+
+        void clear() {
+            bodies.clear();
+        }
+    }
+}
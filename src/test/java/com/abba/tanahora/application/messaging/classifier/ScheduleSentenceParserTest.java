@@ -0,0 +1,172 @@
+package com.abba.tanahora.application.messaging.classifier;
+
+import com.abba.tanahora.application.dto.AiMessageProcessorDto;
+import com.abba.tanahora.application.dto.MessageReceivedType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+import static com.abba.tanahora.domain.utils.Constants.BRAZIL_ZONEID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScheduleSentenceParserTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2026, 10, 17, 15, 0, 0, 0, BRAZIL_ZONEID);
+
+    private final ScheduleSentenceParser parser = new ScheduleSentenceParser();
+
+    @Test
+    @DisplayName("Given an interval sentence with a dosage and a duration in days, " +
+            "when it is parsed, " +
+            "then medication, dosage and an hourly rrule ending N days from now are extracted")
+    void givenIntervalSentenceWithDurationWhenParsedThenUntilIsNDaysAhead() {
+        // Given
+        String body = "Dipirona 500mg a cada 8 horas durante 7 dias";
+
+        // When
+        AiMessageProcessorDto dto = parser.parse(body, NOW).orElseThrow();
+
+        // Then
+        assertThat(dto.getType()).isEqualTo(MessageReceivedType.REMINDER_CREATION);
+        assertThat(dto.getMedication()).isEqualTo("Dipirona");
+        assertThat(dto.getDosage()).isEqualTo("500mg");
+        assertThat(dto.getRrule()).isEqualTo("FREQ=HOURLY;INTERVAL=8;UNTIL=20261024T180000Z");
+    }
+
+    @Test
+    @DisplayName("Given a \"de N em N horas por N dias\" sentence, " +
+            "when it is parsed, " +
+            "then the interval and the UNTIL are computed from the duration")
+    void givenFromToIntervalSentenceWhenParsedThenUntilFollowsTheDuration() {
+        // Given
+        String body = "Amoxicilina 500 mg de 8 em 8 horas por 10 dias";
+
+        // When
+        AiMessageProcessorDto dto = parser.parse(body, NOW).orElseThrow();
+
+        // Then
+        assertThat(dto.getMedication()).isEqualTo("Amoxicilina");
+        assertThat(dto.getDosage()).isEqualTo("500 mg");
+        assertThat(dto.getRrule()).isEqualTo("FREQ=HOURLY;INTERVAL=8;UNTIL=20261027T180000Z");
+    }
+
+    @Test
+    @DisplayName("Given a sentence asking for the reminder after meals, " +
+            "when it is parsed, " +
+            "then the meal slots with mixed minutes are selected with BYSETPOS")
+    void givenMealsSentenceWhenParsedThenMixedMinutesUseBySetPos() {
+        // Given
+        String body = "Omeprazol após as refeições.";
+
+        // When
+        AiMessageProcessorDto dto = parser.parse(body, NOW).orElseThrow();
+
+        // Then
+        assertThat(dto.getMedication()).isEqualTo("Omeprazol");
+        assertThat(dto.getRrule()).isEqualTo("FREQ=DAILY;BYHOUR=7,13,20;BYMINUTE=0,30;BYSECOND=0;BYSETPOS=2,3,5");
+    }
+
+    @Test
+    @DisplayName("Given a daily sentence with times on different minutes, " +
+            "when it is parsed, " +
+            "then only the requested hour and minute pairs are selected")
+    void givenDailyTimesWithMixedMinutesWhenParsedThenSelectsOnlyRequestedPairs() {
+        // Given
+        String body = "Puran T4 todo dia as 7:30 e 19h";
+
+        // When
+        AiMessageProcessorDto dto = parser.parse(body, NOW).orElseThrow();
+
+        // Then
+        assertThat(dto.getMedication()).isEqualTo("Puran T4");
+        assertThat(dto.getRrule()).isEqualTo("FREQ=DAILY;BYHOUR=7,19;BYMINUTE=0,30;BYSECOND=0;BYSETPOS=2,3");
+    }
+
+    @Test
+    @DisplayName("Given a \"me lembre\" sentence with the dosage before the medication, " +
+            "when it is parsed, " +
+            "then the dosage and the daily times are extracted")
+    void givenReminderRequestWithLeadingDoseWhenParsedThenExtractsDoseAndTimes() {
+        // Given
+        String body = "Me lembre de tomar 1 comprimido de Rivotril às 8h e às 22h todos os dias";
+
+        // When
+        AiMessageProcessorDto dto = parser.parse(body, NOW).orElseThrow();
+
+        // Then
+        assertThat(dto.getMedication()).isEqualTo("Rivotril");
+        assertThat(dto.getDosage()).isEqualTo("1 comprimido");
+        assertThat(dto.getRrule()).isEqualTo("FREQ=DAILY;BYHOUR=8,22;BYMINUTE=0;BYSECOND=0");
+    }
+
+    @Test
+    @DisplayName("Given sentences ending on a calendar day, " +
+            "when they are parsed, " +
+            "then the UNTIL covers that whole day in Brazil time")
+    void givenSentencesEndingOnCalendarDayWhenParsedThenUntilIsEndOfThatDay() {
+        // Given
+        String numericMonth = "Vitamina D 2x ao dia até dia 30/11";
+        String namedMonth = "insulina 3 vezes ao dia ate dia 5 de novembro";
+
+        // When
+        AiMessageProcessorDto numeric = parser.parse(numericMonth, NOW).orElseThrow();
+        AiMessageProcessorDto named = parser.parse(namedMonth, NOW).orElseThrow();
+
+        // Then
+        assertThat(numeric.getRrule()).isEqualTo("FREQ=HOURLY;INTERVAL=12;UNTIL=20261201T025959Z");
+        assertThat(named.getRrule()).isEqualTo("FREQ=HOURLY;INTERVAL=8;UNTIL=20261106T025959Z");
+    }
+
+    @Test
+    @DisplayName("Given schedules whose medication slot holds a cancel verb, a patient or a generic word, " +
+            "when they are parsed, " +
+            "then the parser declines and leaves them to the LLM")
+    void givenNotAMedicationWordWhenParsedThenDeclines() {
+        // Given
+        String cancel = "cancelar dipirona a cada 8 horas";
+        String patient = "dipirona para Maria a cada 8 horas";
+        String twoMedications = "dipirona e paracetamol a cada 8 horas";
+        String generic = "meu remedio todo dia as 8h";
+
+        // When
+        Optional<AiMessageProcessorDto> cancelResult = parser.parse(cancel, NOW);
+        Optional<AiMessageProcessorDto> patientResult = parser.parse(patient, NOW);
+        Optional<AiMessageProcessorDto> twoMedicationsResult = parser.parse(twoMedications, NOW);
+        Optional<AiMessageProcessorDto> genericResult = parser.parse(generic, NOW);
+
+        // Then
+        assertThat(cancelResult).isEmpty();
+        assertThat(patientResult).isEmpty();
+        assertThat(twoMedicationsResult).isEmpty();
+        assertThat(genericResult).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given free text, replies and schedules outside the grammar or with invalid values, " +
+            "when they are parsed, " +
+            "then the parser declines and leaves them to the LLM")
+    void givenSentencesOutsideTheGrammarWhenParsedThenDeclines() {
+        // Given
+        String greeting = "oi";
+        String reply = "tomei dipirona";
+        String invalidInterval = "dipirona a cada 25 horas";
+        String invalidHour = "dipirona todo dia às 24h";
+        String unevenInterval = "dipirona 500mg de 6 em 8 horas";
+
+        // When
+        Optional<AiMessageProcessorDto> greetingResult = parser.parse(greeting, NOW);
+        Optional<AiMessageProcessorDto> replyResult = parser.parse(reply, NOW);
+        Optional<AiMessageProcessorDto> invalidIntervalResult = parser.parse(invalidInterval, NOW);
+        Optional<AiMessageProcessorDto> invalidHourResult = parser.parse(invalidHour, NOW);
+        Optional<AiMessageProcessorDto> unevenIntervalResult = parser.parse(unevenInterval, NOW);
+
+        // Then
+        assertThat(greetingResult).isEmpty();
+        assertThat(replyResult).isEmpty();
+        assertThat(invalidIntervalResult).isEmpty();
+        assertThat(invalidHourResult).isEmpty();
+        assertThat(unevenIntervalResult).isEmpty();
+    }
+}
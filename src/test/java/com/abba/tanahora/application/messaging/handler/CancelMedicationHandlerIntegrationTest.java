@@ -164,6 +164,24 @@ class CancelMedicationHandlerIntegrationTest {
                 .isEqualTo(ReminderStatus.ACTIVE);
     }
 
+    @Test
+    @DisplayName("Given free user with medication, when message chain processes a cancellation, then it classifies the message once and cancels the reminder")
+    void givenCancelIntentWhenMessageChainProcessesThenClassifiesOnceAndCancels() {
+        // Given
+        var seed = scripts.createFreeUserWithOneReminderScript("Dipirona", "Ana");
+        AIMessage message = cancelIntent(seed.user().getWhatsappId(), "Dipirona", null);
+        TestConfig.CLASSIFICATIONS.set(0);
+
+        // When
+        messageChain.process(message);
+
+        // Then
+        assertThat(TestConfig.CLASSIFICATIONS.get()).isEqualTo(1);
+        assertThat(message.getClassification().getType()).isEqualTo(MessageReceivedType.REMINDER_CANCEL);
+        var updated = reminderRepository.findById(seed.reminders().getFirst().getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(ReminderStatus.CANCELLED);
+    }
+
     @Test
     @DisplayName("Given pending cancellation and button reply classified as reminder creation, when message chain processes, then pending cancellation flow is executed")
     void givenPendingCancellationWhenMessageChainProcessesThenPendingHandlerWins() {
@@ -294,10 +312,13 @@ class CancelMedicationHandlerIntegrationTest {
 
     @TestConfiguration
     static class TestConfig {
+        static final AtomicInteger CLASSIFICATIONS = new AtomicInteger();
+
         @Bean
         @Primary
         MessageClassifier messageClassifier() {
             return message -> {
+                CLASSIFICATIONS.incrementAndGet();
                 AiMessageProcessorDto dto = new AiMessageProcessorDto();
                 String body = message.getBody();
                 if (body != null && body.startsWith("CANCEL|")) {
@@ -0,0 +1,201 @@
+package com.abba.tanahora.infrastructure.messaging;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.model.MessageReceivedStatus;
+import com.abba.tanahora.domain.repository.MessageReceivedRepository;
+import com.abba.tanahora.domain.service.MessageReceivedHandler;
+import com.abba.tanahora.domain.service.MessageReceivedService;
+import com.abba.tanahora.infrastructure.config.InboundRabbitProperties;
+import com.abba.tanahora.support.MongoCollectionsCleanupExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        properties = {
+                "spring.task.scheduling.enabled=false",
+                "tictacmed.scheduler.enabled=false",
+                "tanahora.inbound.rabbit.enabled=true",
+                "tanahora.inbound.retries.max-attempts=1"
+        }
+)
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MongoCollectionsCleanupExtension.class)
+class MessageReceivedListenerIntegrationTest {
+
+    private static final long TIMEOUT_MS = 10000;
+
+    @Container
+    static final MongoDBContainer MONGO_DB_CONTAINER = new MongoDBContainer("mongo:7.0");
+
+    @Container
+    static final RabbitMQContainer RABBIT_MQ_CONTAINER = new RabbitMQContainer("rabbitmq:3.13-alpine");
+
+    @DynamicPropertySource
+    static void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", MONGO_DB_CONTAINER::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "tanahora-tests");
+        registry.add("spring.rabbitmq.host", RABBIT_MQ_CONTAINER::getHost);
+        registry.add("spring.rabbitmq.port", RABBIT_MQ_CONTAINER::getAmqpPort);
+        registry.add("spring.rabbitmq.username", RABBIT_MQ_CONTAINER::getAdminUsername);
+        registry.add("spring.rabbitmq.password", RABBIT_MQ_CONTAINER::getAdminPassword);
+    }
+
+    @Autowired
+    private MessageReceivedService messageReceivedService;
+
+    @Autowired
+    private MessageReceivedRepository messageReceivedRepository;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private InboundRabbitProperties inboundRabbitProperties;
+
+    @Autowired
+    private HandledMessagesStore handledMessagesStore;
+
+    @BeforeEach
+    void cleanHandledMessages() {
+        handledMessagesStore.clear();
+    }
+
+    @Test
+    @DisplayName("Given a message received from the webhook, " +
+            "when it is persisted, " +
+            "then the queue consumer handles it and marks it as PROCESSED")
+    void givenReceivedMessageWhenPersistedThenConsumerProcessesIt() {
+        // Given
+        MessageReceived message = message("Tomei o remédio");
+
+        // When
+        messageReceivedService.receiveMessage(message);
+
+        // Then
+        awaitUntil(() -> statusOf(message.getId()) == MessageReceivedStatus.PROCESSED);
+        assertThat(handledMessagesStore.getHandledIds()).containsExactly(message.getId());
+    }
+
+    @Test
+    @DisplayName("Given several messages from the same user, " +
+            "when they are persisted in a row, " +
+            "then the consumer handles them in the order they arrived")
+    void givenMessagesFromSameUserWhenPersistedThenHandledInOrder() {
+        // Given
+        List<MessageReceived> messages = IntStream.range(0, 20)
+                .mapToObj(index -> message("Mensagem " + index))
+                .toList();
+
+        // When
+        messages.forEach(messageReceivedService::receiveMessage);
+
+        // Then
+        awaitUntil(() -> handledMessagesStore.getHandledIds().size() == messages.size());
+        assertThat(handledMessagesStore.getHandledIds())
+                .containsExactlyElementsOf(messages.stream().map(MessageReceived::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Given a message whose handling fails, " +
+            "when the consumer exhausts its attempts, " +
+            "then it marks it as DEAD_LETTER and routes it to the dead-letter queue")
+    void givenFailingMessageWhenAttemptsExhaustedThenDeadLetters() {
+        // Given
+        MessageReceived message = message(HandledMessagesStore.FAILING_TEXT);
+
+        // When
+        messageReceivedService.receiveMessage(message);
+
+        // Then
+        awaitUntil(() -> statusOf(message.getId()) == MessageReceivedStatus.DEAD_LETTER);
+        Message deadLettered = rabbitTemplate.receive(inboundRabbitProperties.getDeadLetterQueue(), TIMEOUT_MS);
+        assertThat(deadLettered).isNotNull();
+        assertThat(new String(deadLettered.getBody(), StandardCharsets.UTF_8)).isEqualTo(message.getId());
+    }
+
+    private MessageReceived message(String text) {
+        MessageReceived message = new MessageReceived();
+        message.setId("wamid." + UUID.randomUUID());
+        message.setWhatsappId("5511999990000");
+        message.setMessage(text);
+        return message;
+    }
+
+    private MessageReceivedStatus statusOf(String id) {
+        return messageReceivedRepository.findById(id).map(MessageReceived::getStatus).orElse(null);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within " + TIMEOUT_MS + "ms");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class MessageHandlerTestConfig {
+        @Bean
+        HandledMessagesStore handledMessagesStore() {
+            return new HandledMessagesStore();
+        }
+
+        @Bean
+        @Primary
+        MessageReceivedHandler messageReceivedHandler(HandledMessagesStore handledMessagesStore) {
+            return handledMessagesStore::handle;
+        }
+    }
+
+    static class HandledMessagesStore {
+        static final String FAILING_TEXT = "falhar";
+
+        private final List<String> handledIds = new CopyOnWriteArrayList<>();
+
+        void handle(MessageReceived message) {
+            if (FAILING_TEXT.equals(message.getMessage())) {
+                throw new IllegalStateException("handler failure");
+            }
+            handledIds.add(message.getId());
+        }
+
+        List<String> getHandledIds() {
+            return handledIds;
+        }
+
+        void clear() {
+            handledIds.clear();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.abba.tanahora.infrastructure.scheduler;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.model.MessageReceivedStatus;
+import com.abba.tanahora.domain.repository.MessageReceivedRepository;
+import com.abba.tanahora.domain.service.MessageReceivedHandler;
+import com.abba.tanahora.domain.service.MessageReceivedService;
+import com.abba.tanahora.support.MongoCollectionsCleanupExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        properties = {
+                "spring.task.scheduling.enabled=false",
+                "tictacmed.scheduler.enabled=true",
+                "tanahora.inbound.claims.page-size=2",
+                "tanahora.inbound.retries.max-attempts=3"
+        }
+)
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MongoCollectionsCleanupExtension.class)
+class MessageReceivedJobIntegrationTest {
+
+    @Container
+    static final MongoDBContainer MONGO_DB_CONTAINER = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void registerMongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", MONGO_DB_CONTAINER::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "tanahora-tests");
+    }
+
+    @Autowired
+    private MessageReceivedJob messageReceivedJob;
+
+    @Autowired
+    private MessageReceivedRepository messageReceivedRepository;
+
+    @Autowired
+    private MessageReceivedService messageReceivedService;
+
+    @Autowired
+    private HandledMessagesStore handledMessagesStore;
+
+    @BeforeEach
+    void cleanHandledMessages() {
+        handledMessagesStore.clear();
+    }
+
+    @Test
+    @DisplayName("Given more pending messages than one page, " +
+            "when job runs, " +
+            "then it claims and processes all of them in arrival order")
+    void givenPendingMessagesWhenJobRunsThenProcessesAllPagesInOrder() {
+        // Given
+        MessageReceived first = insertMessage(MessageReceivedStatus.PENDING, OffsetDateTime.now().minusMinutes(3), null);
+        MessageReceived second = insertMessage(MessageReceivedStatus.PENDING, OffsetDateTime.now().minusMinutes(2), null);
+        MessageReceived third = insertMessage(MessageReceivedStatus.PENDING, OffsetDateTime.now().minusMinutes(1), null);
+
+        // When
+        messageReceivedJob.processPendingMessages();
+
+        // Then
+        assertThat(handledMessagesStore.getHandledIds()).containsExactly(first.getId(), second.getId(), third.getId());
+        assertThat(messageReceivedRepository.findAll())
+                .extracting(MessageReceived::getStatus)
+                .containsOnly(MessageReceivedStatus.PROCESSED);
+    }
+
+    @Test
+    @DisplayName("Given messages claimed by other workers, " +
+            "when job runs, " +
+            "then it reclaims only the ones whose claim expired")
+    void givenClaimedMessagesWhenJobRunsThenReclaimsOnlyExpiredClaims() {
+        // Given
+        MessageReceived expired = insertMessage(MessageReceivedStatus.PROCESSING, OffsetDateTime.now().minusMinutes(20),
+                OffsetDateTime.now().minusMinutes(5));
+        MessageReceived held = insertMessage(MessageReceivedStatus.PROCESSING, OffsetDateTime.now().minusMinutes(1),
+                OffsetDateTime.now().plusMinutes(4));
+
+        // When
+        messageReceivedJob.processPendingMessages();
+
+        // Then
+        assertThat(handledMessagesStore.getHandledIds()).containsExactly(expired.getId());
+        assertThat(messageReceivedRepository.findById(expired.getId()).orElseThrow().getStatus())
+                .isEqualTo(MessageReceivedStatus.PROCESSED);
+        assertThat(messageReceivedRepository.findById(held.getId()).orElseThrow().getStatus())
+                .isEqualTo(MessageReceivedStatus.PROCESSING);
+    }
+
+    @Test
+    @DisplayName("Given a pending message whose handling fails, " +
+            "when job runs, " +
+            "then it keeps the message PENDING with a backoff before the next attempt")
+    void givenFailingMessageWhenJobRunsThenSchedulesRetryWithBackoff() {
+        // Given
+        MessageReceived failing = insertMessage(MessageReceivedStatus.PENDING, OffsetDateTime.now().minusMinutes(1), null);
+        failing.setMessage(HandledMessagesStore.FAILING_TEXT);
+        messageReceivedRepository.save(failing);
+
+        // When
+        messageReceivedJob.processPendingMessages();
+        messageReceivedJob.processPendingMessages();
+
+        // Then
+        MessageReceived stored = messageReceivedRepository.findById(failing.getId()).orElseThrow();
+        assertThat(handledMessagesStore.getHandledIds()).containsExactly(failing.getId());
+        assertThat(stored.getStatus()).isEqualTo(MessageReceivedStatus.PENDING);
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        assertThat(stored.getNextAttemptAt()).isAfter(OffsetDateTime.now());
+        assertThat(stored.getLastError()).contains(HandledMessagesStore.FAILING_TEXT);
+    }
+
+    @Test
+    @DisplayName("Given a message failing on its last attempt, " +
+            "when job retries it and it is redriven, " +
+            "then it goes to DEAD_LETTER and back to PENDING with a fresh attempt count")
+    void givenLastAttemptFailingWhenRetriedThenDeadLettersAndRedriveResetsIt() {
+        // Given
+        MessageReceived failing = insertMessage(MessageReceivedStatus.PENDING, OffsetDateTime.now().minusHours(1), null);
+        failing.setMessage(HandledMessagesStore.FAILING_TEXT);
+        failing.setAttempts(2);
+        failing.setNextAttemptAt(OffsetDateTime.now().minusSeconds(1));
+        messageReceivedRepository.save(failing);
+
+        // When
+        messageReceivedJob.processPendingMessages();
+        MessageReceived deadLettered = messageReceivedRepository.findById(failing.getId()).orElseThrow();
+        long redriven = messageReceivedService.redriveFailedMessages(List.of(failing.getId()));
+
+        // Then
+        assertThat(deadLettered.getStatus()).isEqualTo(MessageReceivedStatus.DEAD_LETTER);
+        assertThat(deadLettered.getAttempts()).isEqualTo(3);
+        assertThat(redriven).isEqualTo(1);
+        MessageReceived stored = messageReceivedRepository.findById(failing.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(MessageReceivedStatus.PENDING);
+        assertThat(stored.getAttempts()).isZero();
+        assertThat(stored.getNextAttemptAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Given a message already processed, " +
+            "when the webhook redelivers it, " +
+            "then it is ignored and not handled again")
+    void givenProcessedMessageWhenRedeliveredThenIgnoresIt() {
+        // Given
+        MessageReceived processed = insertMessage(MessageReceivedStatus.PENDING, OffsetDateTime.now().minusMinutes(1), null);
+        messageReceivedJob.processPendingMessages();
+        MessageReceived redelivered = new MessageReceived();
+        redelivered.setId(processed.getId());
+        redelivered.setWhatsappId(processed.getWhatsappId());
+        redelivered.setMessage(processed.getMessage());
+
+        // When
+        boolean accepted = messageReceivedService.receiveMessage(redelivered);
+        messageReceivedJob.processPendingMessages();
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(handledMessagesStore.getHandledIds()).containsExactly(processed.getId());
+        assertThat(messageReceivedRepository.findById(processed.getId()).orElseThrow().getStatus())
+                .isEqualTo(MessageReceivedStatus.PROCESSED);
+    }
+
+    private MessageReceived insertMessage(MessageReceivedStatus status, OffsetDateTime receivedAt, OffsetDateTime claimExpiresAt) {
+        MessageReceived message = new MessageReceived();
+        message.setId("wamid." + UUID.randomUUID());
+        message.setWhatsappId("5511999990000");
+        message.setMessage("Oi");
+        message.setStatus(status);
+        message.setReceivedAt(receivedAt);
+        if (claimExpiresAt != null) {
+            message.setClaimedBy("other-worker");
+            message.setClaimExpiresAt(claimExpiresAt);
+        }
+        return messageReceivedRepository.save(message);
+    }
+
+    @TestConfiguration
+    static class MessageHandlerTestConfig {
+        @Bean
+        HandledMessagesStore handledMessagesStore() {
+            return new HandledMessagesStore();
+        }
+
+        @Bean
+        @Primary
+        MessageReceivedHandler messageReceivedHandler(HandledMessagesStore handledMessagesStore) {
+            return handledMessagesStore::handle;
+        }
+    }
+
+    static class HandledMessagesStore {
+        static final String FAILING_TEXT = "falhar";
+
+        private final List<String> handledIds = new CopyOnWriteArrayList<>();
+
+        void handle(MessageReceived message) {
+            handledIds.add(message.getId());
+            if (FAILING_TEXT.equals(message.getMessage())) {
+                throw new IllegalStateException(FAILING_TEXT);
+            }
+        }
+
+        List<String> getHandledIds() {
+            return handledIds;
+        }
+
+        void clear() {
+            handledIds.clear();
+        }
+    }
+}
@@ -10,13 +10,13 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Component
-public class ReminderSenderJobDbScripts {
+public class ReminderDispatchJobDbScripts {
 
     private final UserRepository userRepository;
     private final ReminderRepository reminderRepository;
     private final ReminderEventRepository reminderEventRepository;
 
-    public ReminderSenderJobDbScripts(UserRepository userRepository,
+    public ReminderDispatchJobDbScripts(UserRepository userRepository,
                                       ReminderRepository reminderRepository,
                                       ReminderEventRepository reminderEventRepository) {
         this.userRepository = userRepository;
@@ -29,6 +29,22 @@ public class ReminderSenderJobDbScripts {
         return insertReminderScript(user, OffsetDateTime.now().minusMinutes(1));
     }
 
+    public Reminder insertReminderForUserInFreeWindowScript() {
+        User user = insertUserScript("free-window");
+        user.setLastInboundAt(OffsetDateTime.now().minusHours(1));
+        return insertReminderScript(userRepository.save(user), OffsetDateTime.now().minusMinutes(1));
+    }
+
+    public Reminder insertReminderLeftBehindByDowntimeScript() {
+        User user = insertUserScript("reminder-stale");
+        return insertReminderScript(user, OffsetDateTime.now().minusHours(5));
+    }
+
+    public Reminder insertReminderScheduledInTheFutureScript() {
+        User user = insertUserScript("reminder-future");
+        return insertReminderScript(user, OffsetDateTime.now().plusMinutes(3));
+    }
+
     public SeedWithPendingEvent insertReminderWithPendingOverdueEventScript() {
         User user = insertUserScript("pending-overdue");
         Reminder reminder = insertReminderScript(user, OffsetDateTime.now().minusMinutes(40));
@@ -46,6 +62,13 @@ public class ReminderSenderJobDbScripts {
         return new SeedWithPendingEvent(reminder, event);
     }
 
+    public SeedWithPendingEvent insertReminderWithPendingOverdueDispatchStateScript() {
+        SeedWithPendingEvent seed = insertReminderWithPendingOverdueEventScript();
+        Reminder reminder = seed.reminder();
+        reminder.setDispatchState(ReminderDispatchState.of(seed.pendingEvent()));
+        return new SeedWithPendingEvent(reminderRepository.save(reminder), seed.pendingEvent());
+    }
+
     public SeedWithSnoozedEvent insertReminderWithSnoozedDueEventScript() {
         User user = insertUserScript("snoozed-due");
         Reminder reminder = insertReminderScript(user, OffsetDateTime.now().minusMinutes(40));
@@ -0,0 +1,425 @@
+package com.abba.tanahora.infrastructure.scheduler;
+
+import com.abba.tanahora.application.notification.WhatsAppMessage;
+import com.abba.tanahora.application.service.ReminderEventServiceImpl;
+import com.abba.tanahora.domain.model.Reminder;
+import com.abba.tanahora.domain.model.ReminderEvent;
+import com.abba.tanahora.domain.model.ReminderEventStatus;
+import com.abba.tanahora.domain.model.ReminderStatus;
+import com.abba.tanahora.domain.model.User;
+import com.abba.tanahora.domain.repository.ReminderDispatchWrites;
+import com.abba.tanahora.domain.repository.ReminderEventRepository;
+import com.abba.tanahora.domain.repository.ReminderRepository;
+import com.abba.tanahora.domain.repository.ReminderTakenHistoryRepository;
+import com.abba.tanahora.domain.service.NotificationService;
+import com.abba.tanahora.domain.service.ReminderDispatchScheduler;
+import com.abba.tanahora.domain.service.UserService;
+import com.abba.tanahora.support.MongoCollectionsCleanupExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(
+        properties = {
+                "spring.task.scheduling.enabled=false",
+                "tictacmed.scheduler.enabled=true",
+                "tanahora.scheduler.dispatch.spread-window-ms=0"
+        }
+)
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MongoCollectionsCleanupExtension.class)
+class ReminderDispatchJobIntegrationTest {
+
+    @Container
+    static final MongoDBContainer MONGO_DB_CONTAINER = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void registerMongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", MONGO_DB_CONTAINER::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "tanahora-tests");
+    }
+
+    @Autowired
+    private ReminderDispatchJob reminderDispatchJob;
+
+    @Autowired
+    private ReminderDispatchJobDbScripts scripts;
+
+    @Autowired
+    private ReminderEventRepository reminderEventRepository;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private NotificationCaptureStore notificationCaptureStore;
+
+    @Autowired
+    private FlushFailingReminderEventService reminderEventService;
+
+    @Autowired
+    private ReminderDispatchWheel reminderDispatchWheel;
+
+    @BeforeEach
+    void cleanNotificationStore() {
+        notificationCaptureStore.clear();
+    }
+
+    @Test
+    @DisplayName("Given active reminder without pending event, " +
+            "when job runs, " +
+            "then it sends a notification and registers a pending event")
+    void givenActiveReminderWithoutPendingEventWhenJobRunsThenSendsAndRegistersEvent() {
+        // Given
+        Reminder reminder = scripts.insertReminderReadyToSendScript();
+
+        // When
+        reminderDispatchJob.loadSchedule();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications()).hasSize(1);
+        List<ReminderEvent> events = reminderEventRepository.findAll();
+        assertThat(events).hasSize(1);
+        assertThat(events.getFirst().getStatus()).isEqualTo(ReminderEventStatus.PENDING);
+        assertThat(events.getFirst().getWhatsappMessageId()).isEqualTo("msg-1");
+        Reminder updatedReminder = reminderRepository.findById(reminder.getId()).orElseThrow();
+        assertThat(updatedReminder.getDispatchState().getEventId()).isEqualTo(events.getFirst().getId());
+        assertThat(updatedReminder.getDispatchState().getStatus()).isEqualTo(ReminderEventStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("Given reminder whose dispatch state is an overdue pending event, " +
+            "when job runs, " +
+            "then it marks the event and the reminder state as MISSED")
+    void givenPendingOverdueDispatchStateWhenJobRunsThenMarksEventAndStateAsMissed() {
+        // Given
+        ReminderDispatchJobDbScripts.SeedWithPendingEvent seed = scripts.insertReminderWithPendingOverdueDispatchStateScript();
+
+        // When
+        reminderDispatchJob.loadSchedule();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        ReminderEvent updated = reminderEventRepository.findById(seed.pendingEvent().getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(ReminderEventStatus.MISSED);
+        Reminder updatedReminder = reminderRepository.findById(seed.reminder().getId()).orElseThrow();
+        assertThat(updatedReminder.getDispatchState().getEventId()).isEqualTo(seed.pendingEvent().getId());
+        assertThat(updatedReminder.getDispatchState().getStatus()).isEqualTo(ReminderEventStatus.MISSED);
+    }
+
+    @Test
+    @DisplayName("Given active reminder scheduled a few minutes ahead, " +
+            "when job runs, " +
+            "then it does not send the reminder before its time")
+    void givenReminderScheduledInTheFutureWhenJobRunsThenDoesNotSendEarly() {
+        // Given
+        scripts.insertReminderScheduledInTheFutureScript();
+
+        // When
+        reminderDispatchJob.loadSchedule();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications()).isEmpty();
+        assertThat(reminderEventRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given user who messaged within the last 24 hours, " +
+            "when job sends the reminder, " +
+            "then it uses the interactive message instead of the template")
+    void givenUserInFreeWindowWhenJobRunsThenSendsInteractiveMessage() {
+        // Given
+        scripts.insertReminderForUserInFreeWindowScript();
+
+        // When
+        reminderDispatchJob.loadSchedule();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications())
+                .singleElement()
+                .extracting(SentNotification::payload)
+                .asString()
+                .contains("tomei_btn");
+    }
+
+    @Test
+    @DisplayName("Given active reminder whose time passed hours ago during downtime, " +
+            "when job runs, " +
+            "then it records the occurrence as MISSED and moves on without notifying")
+    void givenReminderLeftBehindByDowntimeWhenJobRunsThenMarksMissedWithoutSending() {
+        // Given
+        Reminder reminder = scripts.insertReminderLeftBehindByDowntimeScript();
+
+        // When
+        reminderDispatchJob.loadSchedule();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications()).isEmpty();
+        List<ReminderEvent> events = reminderEventRepository.findAll();
+        assertThat(events).hasSize(1);
+        assertThat(events.getFirst().getStatus()).isEqualTo(ReminderEventStatus.MISSED);
+        assertThat(events.getFirst().getWhatsappMessageId()).isNull();
+        Reminder updatedReminder = reminderRepository.findById(reminder.getId()).orElseThrow();
+        assertThat(updatedReminder.getNextDispatch()).isAfter(OffsetDateTime.now());
+        assertThat(updatedReminder.getDispatchState().getStatus()).isEqualTo(ReminderEventStatus.MISSED);
+    }
+
+    @Test
+    @DisplayName("Given pending reminder event overdue by more than 30 minutes, " +
+            "when job runs, " +
+            "then it marks event as MISSED and does not send new notification")
+    void givenPendingOverdueEventWhenJobRunsThenMarksAsMissedWithoutSending() {
+        // Given
+        ReminderDispatchJobDbScripts.SeedWithPendingEvent seed = scripts.insertReminderWithPendingOverdueEventScript();
+        var previousNextDispatch = seed.reminder().getNextDispatch();
+
+        // When
+        reminderDispatchJob.loadSchedule();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications()).hasSize(1);
+        ReminderEvent updated = reminderEventRepository.findById(seed.pendingEvent().getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(ReminderEventStatus.MISSED);
+        Reminder updatedReminder = reminderRepository.findById(seed.reminder().getId()).orElseThrow();
+        assertThat(updatedReminder.getNextDispatch()).isAfter(previousNextDispatch);
+        assertThat(updatedReminder.getRecurrenceAnchor().toInstant()).isEqualTo(updatedReminder.getNextDispatch().toInstant());
+        assertThat(updatedReminder.getRecurrenceIndex()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given reminder with a previous MISSED event, " +
+            "when job runs, " +
+            "then it sends a new reminder and keeps MISSED history")
+    void givenReminderWithMissedEventWhenJobRunsThenSendsNewReminderAndKeepsHistory() {
+        // Given
+        Reminder reminder = scripts.insertReminderWithPreviousMissedEventScript();
+
+        // When
+        reminderDispatchJob.loadSchedule();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications()).hasSize(1);
+        List<ReminderEvent> events = reminderEventRepository.findAll();
+        assertThat(events).hasSize(2);
+        assertThat(events)
+                .extracting(ReminderEvent::getStatus)
+                .containsExactlyInAnyOrder(ReminderEventStatus.MISSED, ReminderEventStatus.PENDING);
+        assertThat(events)
+                .filteredOn(event -> event.getStatus() == ReminderEventStatus.PENDING)
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getReminder().getId()).isEqualTo(reminder.getId());
+                    assertThat(event.getWhatsappMessageId()).isEqualTo("msg-1");
+                });
+    }
+
+    @Test
+    @DisplayName("Given reminder with due SNOOZED event, " +
+            "when job runs, " +
+            "then it sends a new notification and puts event back to PENDING")
+    void givenReminderWithDueSnoozedEventWhenJobRunsThenResendsAndSetsPending() {
+        // Given
+        ReminderDispatchJobDbScripts.SeedWithSnoozedEvent seed = scripts.insertReminderWithSnoozedDueEventScript();
+
+        // When
+        reminderDispatchJob.loadSchedule();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications()).hasSize(1);
+        ReminderEvent updated = reminderEventRepository.findById(seed.snoozedEvent().getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(ReminderEventStatus.PENDING);
+        assertThat(updated.getSnoozedUntil()).isNull();
+        assertThat(updated.getWhatsappMessageId()).isEqualTo("msg-1");
+    }
+
+    @Test
+    @DisplayName("Given reminders ready to send, with due SNOOZED event and with overdue PENDING event, " +
+            "when job runs once, " +
+            "then each reminder is handled by exactly one phase")
+    void givenRemindersInEveryPhaseWhenJobRunsOnceThenEachReminderIsHandledOnce() {
+        // Given
+        Reminder readyToSend = scripts.insertReminderReadyToSendScript();
+        ReminderDispatchJobDbScripts.SeedWithSnoozedEvent snoozedSeed = scripts.insertReminderWithSnoozedDueEventScript();
+        ReminderDispatchJobDbScripts.SeedWithPendingEvent pendingSeed = scripts.insertReminderWithPendingOverdueEventScript();
+
+        // When
+        reminderDispatchJob.loadSchedule();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications()).hasSize(3);
+        assertThat(reminderEventRepository.findById(snoozedSeed.snoozedEvent().getId()).orElseThrow().getStatus())
+                .isEqualTo(ReminderEventStatus.PENDING);
+        assertThat(reminderEventRepository.findById(pendingSeed.pendingEvent().getId()).orElseThrow().getStatus())
+                .isEqualTo(ReminderEventStatus.MISSED);
+        assertThat(reminderEventRepository.findAll())
+                .filteredOn(event -> event.getReminder().getId().equals(readyToSend.getId()))
+                .singleElement()
+                .extracting(ReminderEvent::getStatus)
+                .isEqualTo(ReminderEventStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("Given a reminder sent in a cycle whose batch flush fails, " +
+            "when the reminder is evaluated again, " +
+            "then its event is already recorded and it is not sent a second time")
+    void givenFlushFailsAfterSendWhenReminderIsEvaluatedAgainThenItIsNotResent() {
+        // Given
+        Reminder reminder = scripts.insertReminderReadyToSendScript();
+        reminderDispatchJob.loadSchedule();
+        reminderEventService.failNextFlush();
+        assertThatThrownBy(() -> reminderDispatchJob.dispatch()).isInstanceOf(DataAccessResourceFailureException.class);
+
+        // When
+        reminderDispatchWheel.scheduleAt(reminder.getId(), OffsetDateTime.now().minusSeconds(1));
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications()).hasSize(1);
+        ReminderEvent event = reminderEventRepository.findAll().getFirst();
+        assertThat(reminderEventRepository.findAll()).hasSize(1);
+        assertThat(event.getWhatsappMessageId()).isEqualTo("msg-1");
+        assertThat(event.getStatus()).isEqualTo(ReminderEventStatus.PENDING);
+        Reminder updatedReminder = reminderRepository.findById(reminder.getId()).orElseThrow();
+        assertThat(updatedReminder.getDispatchState().getEventId()).isEqualTo(event.getId());
+    }
+
+    @Test
+    @DisplayName("Given a due reminder saved without being armed on this node, " +
+            "when the pickup runs before the tick, " +
+            "then the reminder is sent without waiting for the resync")
+    void givenDueReminderNotArmedWhenPickupRunsThenItIsSent() {
+        // Given
+        Reminder reminder = scripts.insertReminderReadyToSendScript();
+
+        // When
+        reminderDispatchJob.pickUpDue();
+        reminderDispatchJob.dispatch();
+
+        // Then
+        assertThat(notificationCaptureStore.getSentNotifications()).hasSize(1);
+        Reminder updatedReminder = reminderRepository.findById(reminder.getId()).orElseThrow();
+        assertThat(updatedReminder.getDispatchState().getStatus()).isEqualTo(ReminderEventStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("Given active reminders created before dispatch hashes existed, " +
+            "when the missing hashes are assigned, " +
+            "then every reminder gets the hash of its id")
+    void givenRemindersWithoutDispatchHashWhenAssigningThenEachGetsItsHash() {
+        // Given
+        Reminder first = scripts.insertReminderReadyToSendScript();
+        Reminder second = scripts.insertReminderScheduledInTheFutureScript();
+
+        // When
+        int assigned = reminderRepository.assignMissingDispatchHashes(ReminderStatus.ACTIVE);
+
+        // Then
+        assertThat(assigned).isEqualTo(2);
+        assertThat(reminderRepository.findById(first.getId()).orElseThrow().getDispatchHash())
+                .isEqualTo(Reminder.dispatchHashOf(first.getId()));
+        assertThat(reminderRepository.findById(second.getId()).orElseThrow().getDispatchHash())
+                .isEqualTo(Reminder.dispatchHashOf(second.getId()));
+        assertThat(reminderRepository.assignMissingDispatchHashes(ReminderStatus.ACTIVE)).isZero();
+    }
+
+    @TestConfiguration
+    static class NotificationTestConfig {
+        @Bean
+        NotificationCaptureStore notificationCaptureStore() {
+            return new NotificationCaptureStore();
+        }
+
+        @Bean
+        @Primary
+        NotificationService notificationService(NotificationCaptureStore notificationCaptureStore) {
+            return notificationCaptureStore::capture;
+        }
+
+        @Bean
+        @Primary
+        FlushFailingReminderEventService flushFailingReminderEventService(ReminderEventRepository reminderEventRepository,
+                                                                          ReminderRepository reminderRepository,
+                                                                          ReminderTakenHistoryRepository reminderTakenHistoryRepository,
+                                                                          UserService userService,
+                                                                          ReminderDispatchScheduler reminderDispatchScheduler) {
+            return new FlushFailingReminderEventService(reminderEventRepository, reminderRepository,
+                    reminderTakenHistoryRepository, userService, reminderDispatchScheduler);
+        }
+    }
+
+    static class FlushFailingReminderEventService extends ReminderEventServiceImpl {
+        private final AtomicBoolean failNextFlush = new AtomicBoolean();
+
+        FlushFailingReminderEventService(ReminderEventRepository reminderEventRepository,
+                                         ReminderRepository reminderRepository,
+                                         ReminderTakenHistoryRepository reminderTakenHistoryRepository,
+                                         UserService userService,
+                                         ReminderDispatchScheduler reminderDispatchScheduler) {
+            super(reminderEventRepository, reminderRepository, reminderTakenHistoryRepository, userService, reminderDispatchScheduler);
+        }
+
+        void failNextFlush() {
+            failNextFlush.set(true);
+        }
+
+        @Override
+        public void flush(ReminderDispatchWrites writes) {
+            if (failNextFlush.getAndSet(false)) {
+                throw new DataAccessResourceFailureException("flush failed");
+            }
+            super.flush(writes);
+        }
+    }
+
+    static class NotificationCaptureStore {
+        private final AtomicInteger sequence = new AtomicInteger();
+        private final List<SentNotification> sentNotifications = new CopyOnWriteArrayList<>();
+
+        String capture(User user, WhatsAppMessage message) {
+            String messageId = "msg-" + sequence.incrementAndGet();
+            sentNotifications.add(new SentNotification(user.getId(), messageId, message.buildPayload()));
+            return messageId;
+        }
+
+        List<SentNotification> getSentNotifications() {
+            return sentNotifications;
+        }
+
+        void clear() {
+            sentNotifications.clear();
+            sequence.set(0);
+        }
+    }
+
+    record SentNotification(String userId, String messageId, String payload) {
+    }
+}
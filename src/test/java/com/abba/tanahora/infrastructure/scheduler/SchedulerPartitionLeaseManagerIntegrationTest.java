@@ -0,0 +1,109 @@
+package com.abba.tanahora.infrastructure.scheduler;
+
+import com.abba.tanahora.infrastructure.config.SchedulerPartitionProperties;
+import com.abba.tanahora.support.MongoCollectionsCleanupExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        properties = {
+                "spring.task.scheduling.enabled=false",
+                "tictacmed.scheduler.enabled=false"
+        }
+)
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MongoCollectionsCleanupExtension.class)
+class SchedulerPartitionLeaseManagerIntegrationTest {
+
+    @Container
+    static final MongoDBContainer MONGO_DB_CONTAINER = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void registerMongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", MONGO_DB_CONTAINER::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "tanahora-tests");
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    @DisplayName("Given a single node, " +
+            "when it renews its leases, " +
+            "then it owns every partition")
+    void givenSingleNodeWhenRenewingThenOwnsEveryPartition() {
+        // Given
+        SchedulerPartitionLeaseManager node = newNode("node-a", 30000);
+
+        // When
+        Set<Integer> acquired = node.renew();
+
+        // Then
+        assertThat(acquired).hasSize(8);
+        assertThat(node.ownedPartitions()).containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5, 6, 7);
+    }
+
+    @Test
+    @DisplayName("Given a node owning every partition, " +
+            "when a second node joins, " +
+            "then partitions are split without overlap")
+    void givenNodeOwningEveryPartitionWhenSecondNodeJoinsThenPartitionsAreSplit() {
+        // Given
+        SchedulerPartitionLeaseManager nodeA = newNode("node-a", 30000);
+        SchedulerPartitionLeaseManager nodeB = newNode("node-b", 30000);
+        nodeA.renew();
+
+        // When
+        nodeB.renew();
+        nodeA.renew();
+        nodeB.renew();
+
+        // Then
+        assertThat(nodeA.ownedPartitions()).hasSize(4);
+        assertThat(nodeB.ownedPartitions()).hasSize(4);
+        Set<Integer> all = new HashSet<>(nodeA.ownedPartitions());
+        all.addAll(nodeB.ownedPartitions());
+        assertThat(all).hasSize(8);
+    }
+
+    @Test
+    @DisplayName("Given a node that stopped renewing, " +
+            "when its lease period elapses, " +
+            "then another node takes over its partitions")
+    void givenDeadNodeWhenLeaseExpiresThenAnotherNodeTakesOver() throws InterruptedException {
+        // Given
+        SchedulerPartitionLeaseManager deadNode = newNode("node-dead", 500);
+        SchedulerPartitionLeaseManager liveNode = newNode("node-live", 500);
+        deadNode.renew();
+
+        // When
+        Thread.sleep(600);
+        liveNode.renew();
+
+        // Then
+        assertThat(liveNode.ownedPartitions()).hasSize(8);
+    }
+
+    private SchedulerPartitionLeaseManager newNode(String nodeId, long leaseMs) {
+        SchedulerPartitionProperties properties = new SchedulerPartitionProperties();
+        properties.setEnabled(true);
+        properties.setCount(8);
+        properties.setLeaseMs(leaseMs);
+        properties.setNodeId(nodeId);
+        return new SchedulerPartitionLeaseManager(mongoTemplate, properties);
+    }
+}
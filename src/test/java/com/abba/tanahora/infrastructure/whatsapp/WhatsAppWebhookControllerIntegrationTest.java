@@ -0,0 +1,131 @@
+package com.abba.tanahora.infrastructure.whatsapp;
+
+import com.abba.tanahora.domain.model.MessageReceived;
+import com.abba.tanahora.domain.model.MessageReceivedStatus;
+import com.abba.tanahora.domain.repository.MessageReceivedRepository;
+import com.abba.tanahora.support.MongoCollectionsCleanupExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.task.scheduling.enabled=false",
+        "tictacmed.scheduler.enabled=false",
+        "tanahora.whatsapp.enabled=true",
+        "tanahora.inbound.batch.ack-timeout-ms=10000"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MongoCollectionsCleanupExtension.class)
+class WhatsAppWebhookControllerIntegrationTest {
+
+    private static final String PAYLOAD = """
+            {
+              "object": "whatsapp_business_account",
+              "entry": [{
+                "id": "123",
+                "changes": [{
+                  "field": "messages",
+                  "value": {
+                    "messaging_product": "whatsapp",
+                    "metadata": {"display_phone_number": "5511000000000", "phone_number_id": "999"},
+                    "messages": [
+                      {"from": "5511999990001", "id": "wamid.text", "timestamp": "1700000000", "type": "text",
+                       "text": {"body": "Tomei o remédio"}},
+                      {"from": "5511999990001", "id": "wamid.button", "timestamp": "1700000001", "type": "interactive",
+                       "context": {"from": "5511000000000", "id": "wamid.reminder"},
+                       "interactive": {"type": "button_reply", "button_reply": {"id": "tomei_btn", "title": "Tomei"}}},
+                      {"from": "5511999990001", "id": "wamid.sticker", "timestamp": "1700000002", "type": "sticker",
+                       "sticker": {"id": "media-1", "animated": false}}
+                    ],
+                    "contacts": [{"profile": {"name": "Maria"}, "wa_id": "5511999990001"}]
+                  }
+                }]
+              }]
+            }
+            """;
+
+    @Container
+    static final MongoDBContainer MONGO_DB_CONTAINER = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void registerMongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", MONGO_DB_CONTAINER::getReplicaSetUrl);
+        registry.add("spring.data.mongodb.database", () -> "tanahora-tests");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MessageReceivedRepository messageReceivedRepository;
+
+    @Test
+    @DisplayName("Given a webhook with text and button replies, " +
+            "when it is posted, " +
+            "then it is acknowledged once the supported messages are persisted as PENDING")
+    void givenWebhookWithMessagesWhenPostedThenPersistsSupportedMessages() throws Exception {
+        // Given
+        String prefix = "wamid." + UUID.randomUUID() + ".";
+
+        // When
+        postWebhook(prefix);
+
+        // Then
+        assertThat(messageReceivedRepository.count()).isEqualTo(2);
+        MessageReceived text = messageReceivedRepository.findById(prefix + "text").orElseThrow();
+        assertThat(text.getMessage()).isEqualTo("Tomei o remédio");
+        assertThat(text.getContactName()).isEqualTo("Maria");
+        assertThat(text.getStatus()).isEqualTo(MessageReceivedStatus.PENDING);
+        MessageReceived button = messageReceivedRepository.findById(prefix + "button").orElseThrow();
+        assertThat(button.getMessage()).isEqualTo("Tomei");
+        assertThat(button.getInteractiveButtonId()).isEqualTo("tomei_btn");
+        assertThat(button.getRepliedTo()).isEqualTo(prefix + "reminder");
+        assertThat(messageReceivedRepository.findById(prefix + "sticker")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a webhook already persisted and processed, " +
+            "when Meta redelivers it, " +
+            "then the stored messages are left untouched")
+    void givenProcessedWebhookWhenRedeliveredThenKeepsStoredMessages() throws Exception {
+        // Given
+        String prefix = "wamid." + UUID.randomUUID() + ".";
+        postWebhook(prefix);
+        MessageReceived text = messageReceivedRepository.findById(prefix + "text").orElseThrow();
+        text.markAsProcessed();
+        messageReceivedRepository.save(text);
+
+        // When
+        postWebhook(prefix);
+
+        // Then
+        assertThat(messageReceivedRepository.count()).isEqualTo(2);
+        assertThat(messageReceivedRepository.findById(prefix + "text").orElseThrow().getStatus())
+                .isEqualTo(MessageReceivedStatus.PROCESSED);
+    }
+
+    // message ids are unique per test because the ingest recent-id filter outlives the cleaned collections
+    private void postWebhook(String idPrefix) throws Exception {
+        mockMvc.perform(post("/webhooks/whatsapp")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PAYLOAD.replace("wamid.", idPrefix)))
+                .andExpect(status().isOk());
+    }
+}
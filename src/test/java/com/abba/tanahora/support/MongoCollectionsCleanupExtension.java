@@ -11,7 +11,7 @@ import java.util.List;
 
 public class MongoCollectionsCleanupExtension implements BeforeEachCallback, AfterEachCallback {
 
-    private static final List<String> COLLECTIONS = List.of("reminder_events", "reminders", "users");
+    private static final List<String> COLLECTIONS = List.of("reminder_events", "reminders", "users", "scheduler_leases", "scheduler_nodes", "messages_received", "message_classifications");
 
     @Override
     public void beforeEach(ExtensionContext context) {